@@ -39,7 +39,7 @@ allprojects {
         }
     }
 }
-subprojects {
+configure(subprojects - project(":tasker-jmh")) {
     apply(plugin = "signing")
     apply(plugin = "com.vanniktech.maven.publish")
 
@@ -14,3 +14,4 @@ include("tasker-paper")
 include("tasker-sponge")
 include("tasker-fabric")
 include("tasker-minestom")
+include("tasker-jmh")
@@ -19,12 +19,50 @@
 
 package me.moros.tasker;
 
+import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.jspecify.annotations.Nullable;
 
 sealed abstract class AbstractTimerWheel implements TimerWheel permits SimpleTimerWheel, HierarchicalTimerWheel {
+  private static final int COMPACTION_BATCH = 64;
+  private static final int MAX_BACK_OFF_SHIFT = 6;
+
+  private final Inbox inbox = new Inbox();
+  // Tasks beyond the horizon reference this list as their parent so that cancellations are accounted for
+  private final TaskList overflowParent = new TaskList();
+  private final OverflowQueue overflow = new OverflowQueue();
+  // Expired tasks that did not fit in the previous tick's budget
+  private final TaskList deferred = new TaskList();
+  private final OwnerIndex owners = new OwnerIndex();
+  private final Consumer<Expiring> discard = this::discard;
+  private final int horizon;
+  private volatile @Nullable Thread tickThread;
   private int currentTick;
+  private long elapsedTicks; // Never wraps around, used to index buckets
+  private int compactionCursor;
+  private long deadline;
+  private boolean budgeted;
+  private boolean exhausted;
+  private boolean progressed;
+  private long deferredTasks;
+  private long slippedTicks;
+  private long failures;
+  private TaskErrorHandler errorHandler = TaskErrorHandler.defaults();
+  private WheelMetrics metrics = WheelMetrics.noop();
+  private boolean metered;
+  private int linked;
+  private int largestBucket;
 
-  protected AbstractTimerWheel() {
+  /**
+   * Create a new timer wheel.
+   * @param horizon the amount of ticks covered by the wheel, tasks that expire later are held in an overflow queue
+   */
+  protected AbstractTimerWheel(int horizon) {
+    this.horizon = horizon;
   }
 
   @Override
@@ -32,59 +70,663 @@ sealed abstract class AbstractTimerWheel implements TimerWheel permits SimpleTim
     return currentTick;
   }
 
-  protected final void incrementTick() {
-    ++currentTick;
+  /**
+   * Get the amount of ticks this wheel has advanced by. Unlike the {@link #currentTick() current tick}, this never
+   * overflows so it is safe to use for indexing buckets.
+   * @return the amount of elapsed ticks
+   */
+  protected final long elapsedTicks() {
+    return elapsedTicks;
   }
 
   @Override
   public final void advance() {
+    advance(Long.MAX_VALUE);
+  }
+
+  @Override
+  public final void advance(long nanosBudget) {
+    if (nanosBudget <= 0) {
+      throw new IllegalArgumentException("Budget must be positive!");
+    }
+    trackThread();
+    synchronized (this) {
+      step(nanosBudget);
+    }
+  }
+
+  @Override
+  public final void advanceTo(int targetTick) {
+    trackThread();
+    synchronized (this) {
+      while (currentTick - targetTick < 0) {
+        skipIdle(targetTick);
+        step(Long.MAX_VALUE);
+      }
+    }
+  }
+
+  private void trackThread() {
+    Thread current = Thread.currentThread();
+    if (tickThread != current) {
+      tickThread = current;
+    }
+  }
+
+  /**
+   * Advance by a single tick.
+   * @param nanosBudget the maximum amount of time in nanoseconds to spend executing tasks
+   */
+  private void step(long nanosBudget) {
+    budgeted = nanosBudget != Long.MAX_VALUE;
+    long start = budgeted || metered ? System.nanoTime() : 0;
+    deadline = budgeted ? start + nanosBudget : 0;
+    exhausted = false;
+    progressed = false;
+    largestBucket = 0;
+    drainInbox();
+    migrateOverflow();
+    ++currentTick;
+    ++elapsedTicks;
+    runDeferred();
+    advanceSync();
+    compactSync();
+    if (metered) {
+      metrics.advanced(currentTick, linked, largestBucket, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Move the current tick forward without visiting any buckets as long as the skipped ticks would neither expire
+   * nor cascade tasks. The tick before the target is the furthest this can reach, so the target tick is always
+   * advanced normally.
+   * @param targetTick the tick to stop at
+   */
+  private void skipIdle(int targetTick) {
+    drainInbox();
+    if (deferred.size() > 0) {
+      return;
+    }
+    int limit = targetTick - 1;
+    Expiring next = overflow.peek();
+    if (next != null && next.expiringTick - 1 - limit < 0) {
+      // Stop early so that the next overflowing task is migrated into the wheel before it expires
+      limit = next.expiringTick - 1;
+    }
+    int idle = Math.min(idleTicks(), limit - currentTick);
+    if (idle > 0) {
+      currentTick += idle;
+      elapsedTicks += idle;
+    }
+  }
+
+  @Override
+  public final int ticksUntilNextExpiry() {
     synchronized (this) {
-      advanceSync();
+      drainInbox();
+      if (deferred.size() > 0) {
+        return 1;
+      }
+      long ticks = idleTicks() + 1L;
+      Expiring next = overflow.peek();
+      if (next != null) {
+        ticks = Math.min(ticks, next.expiringTick - currentTick);
+      }
+      return (int) Math.min(ticks, Integer.MAX_VALUE);
+    }
+  }
+
+  @Override
+  public final void metrics(WheelMetrics metrics) {
+    Objects.requireNonNull(metrics);
+    synchronized (this) {
+      this.metrics = metrics;
+      this.metered = metrics != WheelMetrics.noop();
+    }
+  }
+
+  @Override
+  public final void errorHandler(TaskErrorHandler errorHandler) {
+    Objects.requireNonNull(errorHandler);
+    synchronized (this) {
+      this.errorHandler = errorHandler;
+    }
+  }
+
+  @Override
+  public final long failures() {
+    synchronized (this) {
+      return failures;
+    }
+  }
+
+  @Override
+  public final BudgetStats budgetStats() {
+    synchronized (this) {
+      return new BudgetStats(deferredTasks, slippedTicks, deferred.size());
     }
   }
 
   @Override
   public final void shutdown(boolean run) {
     synchronized (this) {
-      shutdownSync(run);
+      drainInbox();
+      Consumer<? super Expiring> action = run ? this::runQuietly : Function.identity()::apply;
+      deferred.clear(action);
+      shutdownSync(action);
+      Expiring node;
+      while ((node = overflow.poll()) != null) {
+        node.parent = null;
+        if (node.isScheduled()) {
+          action.accept(node);
+        }
+      }
+      linked = 0;
+      owners.clear();
     }
   }
 
   @Override
   public final <T extends Expiring> T schedule(T task, int delay) {
+    return schedule(task, delay, null);
+  }
+
+  @Override
+  public final <T extends Expiring> T schedule(T task, int delay, @Nullable Object owner) {
+    return submit(task, delay, owner, 1);
+  }
+
+  @Override
+  public final <T extends Expiring> T scheduleSpread(T task, int delay) {
+    Objects.requireNonNull(task);
+    return submit(task, delay, null, Math.clamp(task.repeat(), 1, finestSpan()));
+  }
+
+  private <T extends Expiring> T submit(T task, int delay, @Nullable Object owner, int window) {
     Objects.requireNonNull(task);
     if (task.repeat() < 0 || delay < 0) {
       throw new IllegalArgumentException();
     }
-    synchronized (this) {
-      reschedule(task, delay);
+    Thread current = tickThread;
+    if (current == null || current == Thread.currentThread()) {
+      synchronized (this) {
+        task.markScheduled();
+        int ticks = spread(delay, window);
+        reschedule(task, ticks);
+        activated(task, ticks, owner);
+      }
+    } else {
+      // Off-thread submissions are handed to the ticking thread to avoid stalling while it advances
+      task.markPending();
+      inbox.push(new Submission(task, null, delay, owner, window));
     }
     return task;
   }
 
-  protected final void reschedule(Expiring node, int ticks) {
-    TaskList tasks = findBucket(ticks);
-    node.unlink();
+  @Override
+  public final int occupancy(int delay) {
+    if (delay < 0) {
+      throw new IllegalArgumentException();
+    }
+    synchronized (this) {
+      return delay >= horizon ? overflow.size() : findBucket(delay).size();
+    }
+  }
+
+  /**
+   * Find the least occupied bucket for a task that tolerates expiring later than requested.
+   * @param delay the earliest delay in ticks
+   * @param window the amount of consecutive ticks to consider
+   * @return the delay in ticks that maps to the least occupied bucket
+   */
+  private int spread(int delay, int window) {
+    if (window <= 1) {
+      return delay;
+    }
+    // Tasks without delay expire on the next tick, so they share the first tick's phase
+    int first = Math.max(delay, 1);
+    int best = first;
+    int min = Integer.MAX_VALUE;
+    for (int i = 0; i < window; i++) {
+      int ticks = first + i;
+      if (ticks < 0 || ticks >= horizon) {
+        break;
+      }
+      int size = findBucket(ticks).size();
+      if (size < min) {
+        min = size;
+        best = ticks;
+        if (size == 0) {
+          break;
+        }
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public final void scheduleAll(Collection<? extends Expiring> tasks, int delay) {
+    if (delay < 0) {
+      throw new IllegalArgumentException();
+    }
+    Expiring[] nodes = tasks.toArray(new Expiring[0]);
+    for (Expiring node : nodes) {
+      Objects.requireNonNull(node);
+      if (node.repeat() < 0) {
+        throw new IllegalArgumentException();
+      }
+    }
+    if (nodes.length == 0) {
+      return;
+    }
+    Thread current = tickThread;
+    if (current == null || current == Thread.currentThread()) {
+      synchronized (this) {
+        for (Expiring node : nodes) {
+          node.markScheduled();
+        }
+        rescheduleAll(nodes, delay, false);
+      }
+    } else {
+      for (Expiring node : nodes) {
+        node.markPending();
+      }
+      inbox.push(new Submission(null, nodes, delay, null, 1));
+    }
+  }
+
+  private void drainInbox() {
+    Submission submission = inbox.drain();
+    while (submission != null) {
+      Expiring node = submission.node;
+      if (node != null) {
+        if (node.activate()) {
+          int ticks = spread(submission.delay, submission.window);
+          reschedule(node, ticks);
+          activated(node, ticks, submission.owner);
+        } else if (!node.isScheduled()) {
+          discard(node);
+        }
+      } else if (submission.nodes != null) {
+        rescheduleAll(submission.nodes, submission.delay, true);
+      }
+      submission = submission.next;
+    }
+  }
+
+  /**
+   * Reschedule multiple tasks with the same delay, resolving their bucket only once.
+   * @param nodes the tasks to reschedule
+   * @param ticks the delay in ticks
+   * @param pending whether the tasks are pending submissions that need to be activated
+   */
+  private void rescheduleAll(Expiring[] nodes, int ticks, boolean pending) {
+    TaskList tasks = ticks >= horizon ? null : findBucket(ticks);
+    int expiringTick = currentTick + ticks;
+    for (Expiring node : nodes) {
+      if (pending && !node.activate()) {
+        if (!node.isScheduled()) {
+          discard(node);
+        }
+        continue;
+      }
+      if (tasks == null) {
+        reschedule(node, ticks);
+      } else {
+        detach(node);
+        node.expiringTick = expiringTick;
+        link(tasks, node);
+      }
+      activated(node, ticks, null);
+    }
+  }
+
+  @Override
+  public final int cancelAll(Object owner) {
+    Objects.requireNonNull(owner);
+    synchronized (this) {
+      drainInbox();
+      int count = owners.removeAll(owner, node -> {
+        // The wheel is locked, so cancelled tasks can be removed eagerly instead of leaving tombstones
+        if (node.markCancelled()) {
+          detach(node);
+          return true;
+        }
+        return false;
+      });
+      if (metered && count > 0) {
+        metrics.cancelled(count);
+      }
+      return count;
+    }
+  }
+
+  /**
+   * Track a task that has just been scheduled.
+   * @param node the scheduled task
+   * @param delay the delay in ticks
+   * @param owner the owner of the task or null if it has none
+   */
+  private void activated(Expiring node, int delay, @Nullable Object owner) {
+    owners.add(node, owner);
+    if (metered && node.isMetered()) {
+      metrics.scheduled(delay);
+    }
+  }
+
+  /**
+   * Forget a cancelled task that has been removed from the wheel.
+   * @param node the cancelled task
+   */
+  private void discard(Expiring node) {
+    owners.remove(node);
+    if (metered) {
+      metrics.cancelled(1);
+    }
+  }
+
+  private void detach(Expiring node) {
+    TaskList parent = node.parent;
+    if (parent == null) {
+      return;
+    }
+    if (parent == overflowParent) {
+      overflow.remove(node);
+      node.parent = null;
+    } else {
+      parent.unlink(node);
+    }
+    --linked;
+  }
+
+  private void link(TaskList tasks, Expiring node) {
     node.parent = tasks;
-    node.expiringTick = currentTick + ticks;
     tasks.add(node);
+    ++linked;
+    if (metered && tasks.size() > largestBucket) {
+      largestBucket = tasks.size();
+    }
   }
 
-  protected final void expire(TaskList tasks) {
+  private @Nullable Expiring unlinkFirst(TaskList tasks) {
     Expiring node = tasks.unlinkFirst();
+    if (node != null) {
+      --linked;
+    }
+    return node;
+  }
+
+  private void reschedule(Expiring node, int ticks) {
+    detach(node);
+    node.expiringTick = currentTick + ticks;
+    if (ticks >= horizon) {
+      node.parent = overflowParent;
+      overflow.add(node);
+      ++linked;
+      return;
+    }
+    link(findBucket(ticks), node);
+  }
+
+  /**
+   * Move tasks from the overflow queue into the wheel once they are within its horizon.
+   */
+  private void migrateOverflow() {
+    Expiring node;
+    while ((node = overflow.peek()) != null && node.expiringTick - currentTick < horizon) {
+      overflow.poll();
+      node.parent = null;
+      --linked;
+      if (node.isScheduled()) {
+        reschedule(node, node.expiringTick - currentTick);
+      } else {
+        discard(node);
+      }
+    }
+  }
+
+  protected final void expire(TaskList tasks) {
+    if (metered && tasks.size() > largestBucket) {
+      largestBucket = tasks.size();
+    }
+    Expiring node = unlinkFirst(tasks);
     while (node != null) {
+      if (node.isScheduled()) {
+        runOrDefer(node);
+      } else {
+        discard(node);
+      }
+      node = unlinkFirst(tasks);
+    }
+  }
+
+  /**
+   * Redistribute the tasks of a higher level bucket, running any that have already expired.
+   * @param level the level of the bucket
+   * @param tasks the bucket to cascade
+   */
+  protected final void cascade(int level, TaskList tasks) {
+    // Only visit tasks that were present before cascading
+    int remaining = tasks.size();
+    if (metered) {
+      metrics.cascaded(level, remaining);
+      largestBucket = Math.max(largestBucket, remaining);
+    }
+    Expiring node;
+    while (remaining-- > 0 && (node = unlinkFirst(tasks)) != null) {
+      if (node.isScheduled()) {
+        int ticks = node.expiringTick - currentTick;
+        if (ticks <= 0) {
+          runOrDefer(node);
+        } else {
+          reschedule(node, ticks);
+        }
+      } else {
+        discard(node);
+      }
+    }
+  }
+
+  /**
+   * Run an expired task or defer it to the next tick if this tick's budget has been exceeded.
+   * @param node the expired task
+   */
+  private void runOrDefer(Expiring node) {
+    if (isOverBudget()) {
+      node.expiringTick = currentTick; // Keep track of the tick this task should have been executed
+      link(deferred, node);
+      ++deferredTasks;
+    } else {
+      run(node);
+    }
+  }
+
+  private void runDeferred() {
+    Expiring node;
+    while (!isOverBudget() && (node = unlinkFirst(deferred)) != null) {
+      if (node.isScheduled()) {
+        slippedTicks += currentTick - node.expiringTick;
+        run(node);
+      } else {
+        discard(node);
+      }
+    }
+  }
+
+  /**
+   * Check whether this tick's budget has been exceeded. At least one task always runs per tick, so a budget spent
+   * before any task has run cannot stall the wheel.
+   * @return true if remaining expired tasks should be deferred, false otherwise
+   */
+  private boolean isOverBudget() {
+    if (!progressed) {
+      return false;
+    }
+    if (!exhausted && budgeted && System.nanoTime() - deadline >= 0) {
+      exhausted = true;
+    }
+    return exhausted;
+  }
+
+  private void run(Expiring node) {
+    progressed = true;
+    boolean reported = metered && node.isMetered();
+    long start = reported ? System.nanoTime() : 0;
+    int repeat = node.repeat();
+    try {
       node.run();
-      int repeat = node.repeat();
-      if (repeat > 0) {
-        reschedule(node, repeat);
+      if (node.failures != 0) {
+        node.failures = 0;
+      }
+    } catch (VirtualMachineError e) {
+      throw e;
+    } catch (Throwable e) {
+      // Errors such as linkage failures after a reload must not leave the rest of the bucket unrun either
+      repeat = handleFailure(node, repeat, e);
+    }
+    if (reported) {
+      metrics.expired(node, System.nanoTime() - start);
+    }
+    if (repeat > 0 && node.isScheduled()) {
+      reschedule(node, repeat);
+      if (reported) {
+        metrics.rescheduled(repeat);
       }
-      node = tasks.unlinkFirst();
+    } else {
+      owners.remove(node);
     }
   }
 
+  /**
+   * Report a task failure to the error handler and apply the returned policy.
+   * @param node the failed task
+   * @param repeat the repeat period of the task
+   * @param error the thrown exception or error
+   * @return the delay to reschedule the task with, a non-positive value means the task won't be rescheduled
+   */
+  private int handleFailure(Expiring node, int repeat, Throwable error) {
+    ++failures;
+    TaskErrorHandler.Policy policy = errorHandler.handle(node, error);
+    if (repeat <= 0) {
+      return repeat;
+    }
+    return switch (policy) {
+      case KEEP -> repeat;
+      case CANCEL -> {
+        node.markCancelled();
+        yield 0;
+      }
+      case BACK_OFF -> {
+        node.failures = Math.min(node.failures + 1, MAX_BACK_OFF_SHIFT);
+        yield (int) Math.min((long) repeat << node.failures, Integer.MAX_VALUE);
+      }
+    };
+  }
+
+  private void runQuietly(Expiring node) {
+    try {
+      node.run();
+    } catch (VirtualMachineError e) {
+      throw e;
+    } catch (Throwable e) {
+      handleFailure(node, 0, e);
+    }
+  }
+
+  /**
+   * Compact the overflow queue and a batch of buckets in a round-robin fashion, removing any cancelled tasks they hold.
+   */
+  private void compactSync() {
+    int removed = 0;
+    int cancelled = overflowParent.tombstones();
+    if (cancelled > 0 && cancelled >= (overflow.size() >> 1)) {
+      overflowParent.clearTombstones(cancelled);
+      removed += overflow.removeIf(node -> {
+        if (node.isScheduled()) {
+          return false;
+        }
+        node.parent = null;
+        discard(node);
+        return true;
+      });
+    }
+    int size = bucketCount();
+    for (int i = 0; i < Math.min(COMPACTION_BATCH, size); i++) {
+      if (compactionCursor >= size) {
+        compactionCursor = 0;
+      }
+      removed += bucket(compactionCursor++).compact(discard);
+    }
+    linked -= removed;
+  }
+
   protected abstract void advanceSync();
 
-  protected abstract void shutdownSync(boolean run);
+  /**
+   * Count the upcoming ticks that would neither expire nor cascade any tasks.
+   * @return the amount of idle ticks or {@link Integer#MAX_VALUE} if there are no tasks in the wheel
+   */
+  protected abstract int idleTicks();
+
+  protected abstract void shutdownSync(Consumer<? super Expiring> action);
 
   protected abstract TaskList findBucket(int ticks);
+
+  protected abstract int bucketCount();
+
+  protected abstract TaskList bucket(int index);
+
+  /**
+   * Get the amount of ticks covered by buckets that hold a single tick.
+   * @return the span of the finest level
+   */
+  protected abstract int finestSpan();
+
+  private static final class Submission {
+    private final @Nullable Expiring node;
+    private final Expiring @Nullable [] nodes;
+    private final int delay;
+    private final @Nullable Object owner;
+    private final int window;
+    private @Nullable Submission next;
+
+    private Submission(@Nullable Expiring node, Expiring @Nullable [] nodes, int delay, @Nullable Object owner, int window) {
+      this.node = node;
+      this.nodes = nodes;
+      this.delay = delay;
+      this.owner = owner;
+      this.window = window;
+    }
+  }
+
+  /**
+   * A lock-free multi-producer single-consumer stack of pending submissions.
+   */
+  private static final class Inbox {
+    private final AtomicReference<@Nullable Submission> head = new AtomicReference<>();
+
+    private void push(Submission submission) {
+      Submission next;
+      do {
+        next = head.get();
+        submission.next = next;
+      } while (!head.compareAndSet(next, submission));
+    }
+
+    /**
+     * Remove all pending submissions.
+     * @return the removed submissions in the order they were pushed
+     */
+    private @Nullable Submission drain() {
+      Submission submission = head.get() == null ? null : head.getAndSet(null);
+      Submission prev = null;
+      while (submission != null) {
+        Submission next = submission.next;
+        submission.next = prev;
+        prev = submission;
+        submission = next;
+      }
+      return prev;
+    }
+  }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker;
+
+/**
+ * A fixed size bitmap that tracks which buckets of a wheel level hold tasks.
+ */
+final class Bitmap {
+  private final long[] words;
+  private final int length;
+
+  Bitmap(int length) {
+    this.words = new long[(length + 63) >>> 6];
+    this.length = length;
+  }
+
+  void set(int index) {
+    words[index >>> 6] |= 1L << index;
+  }
+
+  void clear(int index) {
+    words[index >>> 6] &= ~(1L << index);
+  }
+
+  /**
+   * Find the first set bit at or after the given index.
+   * @param from the index to start searching from
+   * @return the index of the next set bit or -1 if there is none
+   */
+  int nextSetBit(int from) {
+    if (from >= length) {
+      return -1;
+    }
+    int i = from >>> 6;
+    long word = words[i] & (-1L << from);
+    while (word == 0) {
+      if (++i == words.length) {
+        return -1;
+      }
+      word = words[i];
+    }
+    return (i << 6) + Long.numberOfTrailingZeros(word);
+  }
+
+  /**
+   * Calculate how many positions away the next set bit is, wrapping around the end of the bitmap.
+   * @param from the index to start searching from
+   * @return the distance to the next set bit or -1 if no bits are set
+   */
+  int distance(int from) {
+    int next = nextSetBit(from);
+    if (next >= 0) {
+      return next - from;
+    }
+    next = nextSetBit(0);
+    return next < 0 ? -1 : next + length - from;
+  }
+}
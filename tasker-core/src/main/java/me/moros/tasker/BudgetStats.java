@@ -0,0 +1,29 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker;
+
+/**
+ * Statistics about tasks that were deferred because a {@link TimerWheel#advance(long) tick budget} was exceeded.
+ * @param deferred the total amount of tasks that have been deferred
+ * @param slippedTicks the total amount of ticks that deferred tasks executed late by
+ * @param backlog the amount of deferred tasks currently waiting to be executed
+ */
+public record BudgetStats(long deferred, long slippedTicks, int backlog) {
+}
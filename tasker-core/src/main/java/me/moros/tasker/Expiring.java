@@ -19,7 +19,8 @@
 
 package me.moros.tasker;
 
-import java.util.Comparator;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 
 import org.jspecify.annotations.Nullable;
 
@@ -27,13 +28,33 @@ import org.jspecify.annotations.Nullable;
  * Abstract base for {@link Task}.
  */
 public abstract class Expiring implements Task, Comparable<Expiring> {
-  private static final Comparator<Expiring> COMPARATOR = Comparator.comparingInt(Expiring::expiringTick);
+  private static final VarHandle STATE;
+
+  private static final int IDLE = 0;
+  private static final int PENDING = 1;
+  private static final int SCHEDULED = 2;
+  private static final int CANCELLED = 3;
+
+  static {
+    try {
+      STATE = MethodHandles.lookup().findVarHandle(Expiring.class, "state", int.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
 
   private @Nullable Expiring prev;
   private @Nullable Expiring next;
+  private volatile int state;
 
   @Nullable TaskList parent;
   int expiringTick;
+  int failures; // Consecutive failures, used to back off repeating tasks
+  int heapIndex = -1; // Position in the overflow queue
+  // Owner index links, only accessed while holding the wheel's lock
+  @Nullable Object owner;
+  @Nullable Expiring ownerPrev;
+  @Nullable Expiring ownerNext;
 
   protected Expiring() {
     prev = next = null;
@@ -55,25 +76,72 @@ public abstract class Expiring implements Task, Comparable<Expiring> {
     this.next = next;
   }
 
-  private int expiringTick() {
-    return expiringTick;
+  final boolean isScheduled() {
+    return state == SCHEDULED;
   }
 
-  final void unlink() {
-    if (parent != null) {
-      parent.unlink(this);
-    }
+  final void markScheduled() {
+    state = SCHEDULED;
+  }
+
+  final void markPending() {
+    state = PENDING;
   }
 
+  /**
+   * Attempt to transition a pending submission to scheduled.
+   * @return true if the submission is still valid, false if it was cancelled or superseded
+   */
+  final boolean activate() {
+    return STATE.compareAndSet(this, PENDING, SCHEDULED);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <br>
+   * Cancellation is lock-free and can be safely performed from any thread. The task is only marked as cancelled
+   * and is lazily removed by its timer wheel.
+   */
   @Override
   public final void cancel() {
-    synchronized (this) {
-      unlink();
+    if (markCancelled()) {
+      TaskList tasks = parent;
+      if (tasks != null) {
+        tasks.tombstone();
+      }
     }
   }
 
+  /**
+   * Attempt to transition a pending or scheduled task to cancelled.
+   * @return true if the task was cancelled by this call, false otherwise
+   */
+  final boolean markCancelled() {
+    int current;
+    do {
+      current = state;
+      if (current != PENDING && current != SCHEDULED) {
+        return false;
+      }
+    } while (!STATE.compareAndSet(this, current, CANCELLED));
+    return true;
+  }
+
+  /**
+   * Check whether the wheel reports this task to its {@link WheelMetrics metrics listener}. Tasks that only
+   * dispatch other tasks can opt out so that the dispatched tasks are not accounted for twice.
+   * @return true if this task is reported, false otherwise
+   */
+  protected boolean isMetered() {
+    return true;
+  }
+
+  /**
+   * Compare tasks by their expiring tick. The comparison is safe when ticks overflow as long as both tasks
+   * expire within {@link Integer#MAX_VALUE} ticks of each other.
+   */
   @Override
   public final int compareTo(Expiring o) {
-    return COMPARATOR.compare(this, o);
+    return Integer.compare(expiringTick - o.expiringTick, 0);
   }
 }
@@ -20,75 +20,91 @@
 package me.moros.tasker;
 
 import java.util.function.Consumer;
-import java.util.function.Function;
-
-import me.moros.tasker.TaskList.PendingTaskList;
 
 final class HierarchicalTimerWheel extends AbstractTimerWheel {
-  private final int[] BUCKETS = {60, 40, 30, 8, 3}; // 3s, 2m, 1h, 8h, 1d
-  private final int[] SPANS = {60, 2400, 72_000, 576_000, 1_728_000, 1_728_000};
-
   private final TaskList pending;
   private final TaskList[][] wheel;
-  private final int[] index;
+  private final Bitmap[] occupancy;
+  private final TaskList[] buckets;
+  private final int[] resolutions;
+  private final int[] shifts;
+  private final int[] masks;
+  private final boolean powerOfTwo;
   private final int length;
+  // Bucket index of the current tick in each level, only used when levels are not powers of two
+  private final int[] cursors;
+  private long synced;
 
-  HierarchicalTimerWheel() {
-    length = BUCKETS.length;
-    index = new int[length];
-    pending = new PendingTaskList();
+  HierarchicalTimerWheel(WheelSpec spec) {
+    super(spec.horizon());
+    length = spec.levels();
+    powerOfTwo = spec.isPowerOfTwo();
+    resolutions = new int[length];
+    shifts = new int[length];
+    masks = new int[length];
+    cursors = new int[length];
+    pending = new TaskList();
     wheel = new TaskList[length][];
+    occupancy = new Bitmap[length];
+    int bucketCount = 0;
     for (int i = 0; i < length; i++) {
-      int innerLength = BUCKETS[i];
+      int innerLength = spec.buckets(i);
+      resolutions[i] = spec.resolution(i);
+      shifts[i] = Integer.numberOfTrailingZeros(resolutions[i]);
+      masks[i] = innerLength - 1;
       wheel[i] = new TaskList[innerLength];
+      occupancy[i] = new Bitmap(innerLength);
       for (int j = 0; j < innerLength; j++) {
-        wheel[i][j] = new TaskList();
+        wheel[i][j] = new TaskList(occupancy[i], j);
       }
+      bucketCount += innerLength;
+    }
+    buckets = new TaskList[bucketCount];
+    int offset = 0;
+    for (TaskList[] level : wheel) {
+      System.arraycopy(level, 0, buckets, offset, level.length);
+      offset += level.length;
     }
   }
 
   @Override
   protected void advanceSync() {
-    incrementTick();
-    for (int i = 0; i < length; i++) {
-      boolean cascade = increment(i);
-      expire(wheel[i][index[i]], cascade && i > 0);
-      if (!cascade) {
-        break;
-      }
+    sync();
+    expire(wheel[0][current(0)]);
+    // Higher levels only need to cascade when the level below them completes a full bucket
+    for (int i = 1; i < length && isAligned(i); i++) {
+      cascade(i, wheel[i][current(i)]);
     }
     expire(pending);
   }
 
   @Override
-  protected void shutdownSync(boolean run) {
-    Consumer<? super Expiring> action = run ? Expiring::run : Function.identity()::apply;
-    pending.clear(action);
-    for (int i = 0; i < length; i++) {
-      for (TaskList tasks : wheel[i]) {
-        tasks.clear(action);
+  protected int idleTicks() {
+    if (pending.size() > 0) {
+      return 0;
+    }
+    sync();
+    long min = Integer.MAX_VALUE;
+    for (int i = 0; i < length && min > 0; i++) {
+      // Buckets of each level are only visited on ticks aligned to the level's resolution
+      int resolution = resolutions[i];
+      int next = resolution - offset(i);
+      int distance = occupancy[i].distance(index(i, next));
+      if (distance >= 0) {
+        min = Math.min(min, next + (long) distance * resolution - 1);
       }
     }
+    return (int) min;
   }
 
-  private void expire(TaskList tasks, boolean cascadeReschedule) {
-    Expiring node = tasks.first();
-    Expiring next;
-    while (node != null) {
-      next = node.next();
-      if (node.expiringTick <= currentTick()) {
-        node.unlink();
-        node.run();
-        int repeat = node.repeat();
-        if (repeat > 0) {
-          reschedule(node, repeat);
-        }
-      } else if (cascadeReschedule) {
-        reschedule(node, node.expiringTick - currentTick());
-      } else {
-        return;
+  @Override
+  protected void shutdownSync(Consumer<? super Expiring> action) {
+    pending.clear(action);
+    for (int i = 0; i < length; i++) {
+      Bitmap bits = occupancy[i];
+      for (int j = bits.nextSetBit(0); j >= 0; j = bits.nextSetBit(j + 1)) {
+        wheel[i][j].clear(action);
       }
-      node = next;
     }
   }
 
@@ -97,30 +113,108 @@ final class HierarchicalTimerWheel extends AbstractTimerWheel {
     if (ticks <= 0) {
       return pending;
     }
-    for (int i = 0; i < length; i++) {
-      int tickCapacity = SPANS[i + 1];
-      if (ticks <= tickCapacity) {
-        return offset(i, ticks);
+    sync();
+    for (int i = 0; i < length - 1; i++) {
+      if (ticks < resolutions[i + 1]) {
+        return wheel[i][index(i, ticks)];
+      }
+    }
+    return wheel[length - 1][index(length - 1, ticks)];
+  }
+
+  @Override
+  protected int bucketCount() {
+    return buckets.length;
+  }
+
+  @Override
+  protected TaskList bucket(int index) {
+    return buckets[index];
+  }
+
+  @Override
+  protected int finestSpan() {
+    return wheel[0].length;
+  }
+
+  /**
+   * Bring the bucket indices of each level up to date with the elapsed ticks. Advancing by a single tick carries
+   * over the levels like a counter, division is only needed after idle ticks have been skipped.
+   */
+  private void sync() {
+    if (powerOfTwo) {
+      return;
+    }
+    long tick = elapsedTicks();
+    if (tick == synced) {
+      return;
+    }
+    if (tick - synced == 1) {
+      for (int i = 0; i < length && ++cursors[i] == wheel[i].length; i++) {
+        cursors[i] = 0;
+      }
+    } else {
+      for (int i = 0; i < length; i++) {
+        cursors[i] = (int) ((tick / resolutions[i]) % wheel[i].length);
       }
     }
-    return offset(length - 1, Math.min(ticks, SPANS[length]));
+    synced = tick;
+  }
+
+  /**
+   * Get the bucket index that the current tick maps to.
+   * @param level the level index
+   * @return the bucket index
+   */
+  private int current(int level) {
+    if (powerOfTwo) {
+      return (int) (elapsedTicks() >>> shifts[level]) & masks[level];
+    }
+    return cursors[level];
   }
 
-  private TaskList offset(int idx, int ticks) {
-    int innerIndex = (index[idx] + ticks % SPANS[idx]) % BUCKETS[idx];
-    return wheel[idx][innerIndex];
+  /**
+   * Calculate the bucket index that a future tick maps to.
+   * @param level the level index
+   * @param ticks the amount of ticks after the current tick, less than the level's span
+   * @return the bucket index
+   */
+  private int index(int level, int ticks) {
+    if (powerOfTwo) {
+      return (int) ((elapsedTicks() + ticks) >>> shifts[level]) & masks[level];
+    }
+    // The sum is less than twice the level's length, so a single subtraction wraps it around
+    int index = cursors[level] + (offset(level) + ticks) / resolutions[level];
+    int innerLength = wheel[level].length;
+    return index >= innerLength ? index - innerLength : index;
   }
 
   /**
-   * Attempt to increment the index for the given bucket.
-   * @param idx the bucket index
-   * @return true if the wheel performed a full rotation, false otherwise
+   * Check whether the current tick is the first tick of a bucket. Must be called in ascending order of levels
+   * and only if the level below is aligned as well.
+   * @param level the level index
+   * @return true if the current tick is aligned to the level's resolution, false otherwise
    */
-  private boolean increment(int idx) {
-    if (++index[idx] >= BUCKETS[idx]) {
-      index[idx] = 0;
-      return true;
+  private boolean isAligned(int level) {
+    if (powerOfTwo) {
+      return ((int) elapsedTicks() & (resolutions[level] - 1)) == 0;
+    }
+    return cursors[level - 1] == 0;
+  }
+
+  /**
+   * Calculate how many ticks have elapsed since the start of the bucket that the current tick maps to.
+   * @param level the level index
+   * @return the offset in ticks
+   */
+  private int offset(int level) {
+    if (powerOfTwo) {
+      return (int) elapsedTicks() & (resolutions[level] - 1);
+    }
+    int offset = 0;
+    for (int i = 0; i < level; i++) {
+      offset += cursors[i] * resolutions[i];
     }
-    return false;
+    return offset;
   }
 }
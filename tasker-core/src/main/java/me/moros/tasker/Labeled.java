@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Represents a task callback with a human-readable label, used to attribute execution time when profiling.
+ * @see TaskProfiler
+ */
+public interface Labeled {
+  /**
+   * Get the label of this callback.
+   * @return the label
+   */
+  String label();
+
+  /**
+   * Get the label of the provided callback. If the callback is not {@link Labeled}, a label is derived from its class.
+   * For lambdas and method references this is the class that declared them.
+   * @param callback the callback
+   * @return the label
+   */
+  static String labelOf(Object callback) {
+    if (callback instanceof Labeled labeled) {
+      return labeled.label();
+    }
+    return Labels.CLASS_LABELS.get(callback.getClass());
+  }
+
+  /**
+   * Attach a label to a task.
+   * @param label the label
+   * @param task the task
+   * @return the labeled task
+   */
+  static Runnable runnable(String label, Runnable task) {
+    Objects.requireNonNull(label);
+    Objects.requireNonNull(task);
+    return new Labels.LabeledRunnable(label, task);
+  }
+
+  /**
+   * Attach a label to a task.
+   * @param label the label
+   * @param task the task
+   * @param <T> the type of input
+   * @return the labeled task
+   */
+  static <T> Consumer<T> consumer(String label, Consumer<T> task) {
+    Objects.requireNonNull(label);
+    Objects.requireNonNull(task);
+    return new Labels.LabeledConsumer<>(label, task);
+  }
+
+  /**
+   * Attach a label to a task.
+   * @param label the label
+   * @param task the task
+   * @param <V> the type of result
+   * @return the labeled task
+   */
+  static <V> Supplier<V> supplier(String label, Supplier<V> task) {
+    Objects.requireNonNull(label);
+    Objects.requireNonNull(task);
+    return new Labels.LabeledSupplier<>(label, task);
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+final class Labels {
+  private static final String LAMBDA_MARKER = "$$Lambda";
+
+  static final ClassValue<String> CLASS_LABELS = new ClassValue<>() {
+    @Override
+    protected String computeValue(Class<?> type) {
+      String name = type.getName();
+      int index = name.indexOf(LAMBDA_MARKER);
+      return index < 0 ? name : name.substring(0, index) + " (lambda)";
+    }
+  };
+
+  private Labels() {
+  }
+
+  record LabeledRunnable(String label, Runnable task) implements Runnable, Labeled {
+    @Override
+    public void run() {
+      task.run();
+    }
+  }
+
+  record LabeledConsumer<T>(String label, Consumer<T> task) implements Consumer<T>, Labeled {
+    @Override
+    public void accept(T t) {
+      task.accept(t);
+    }
+  }
+
+  record LabeledSupplier<V>(String label, Supplier<V> task) implements Supplier<V>, Labeled {
+    @Override
+    public V get() {
+      return task.get();
+    }
+  }
+}
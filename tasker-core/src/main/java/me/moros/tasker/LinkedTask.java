@@ -21,7 +21,7 @@ package me.moros.tasker;
 
 import java.util.function.Consumer;
 
-final class LinkedTask extends Expiring {
+final class LinkedTask extends Expiring implements Labeled {
   private final Consumer<? super Task> task;
   private final int repeat;
 
@@ -40,6 +40,11 @@ final class LinkedTask extends Expiring {
     return repeat;
   }
 
+  @Override
+  public String label() {
+    return Labeled.labelOf(task);
+  }
+
   @Override
   public String toString() {
     return "Repeating every: " + repeat;
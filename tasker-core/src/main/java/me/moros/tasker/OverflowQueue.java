@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A binary min-heap of tasks ordered by their expiring tick. Each task stores its position in the heap,
+ * so arbitrary tasks can be removed in logarithmic time.
+ */
+final class OverflowQueue {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Expiring[] heap = new Expiring[INITIAL_CAPACITY];
+  private int size;
+
+  int size() {
+    return size;
+  }
+
+  @Nullable Expiring peek() {
+    return size == 0 ? null : heap[0];
+  }
+
+  void add(Expiring node) {
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, size << 1);
+    }
+    siftUp(size++, node);
+  }
+
+  @Nullable Expiring poll() {
+    if (size == 0) {
+      return null;
+    }
+    Expiring node = heap[0];
+    removeAt(0);
+    return node;
+  }
+
+  /**
+   * Remove a task that is held in this queue.
+   * @param node the task to remove
+   */
+  void remove(Expiring node) {
+    removeAt(node.heapIndex);
+  }
+
+  /**
+   * Remove all tasks matching the given predicate.
+   * @param filter the predicate that selects tasks to remove
+   * @return the amount of removed tasks
+   */
+  int removeIf(Predicate<? super Expiring> filter) {
+    int kept = 0;
+    for (int i = 0; i < size; i++) {
+      Expiring node = heap[i];
+      if (filter.test(node)) {
+        node.heapIndex = -1;
+      } else {
+        heap[kept++] = node;
+      }
+    }
+    int removed = size - kept;
+    if (removed > 0) {
+      Arrays.fill(heap, kept, size, null);
+      size = kept;
+      for (int i = 0; i < size; i++) {
+        heap[i].heapIndex = i;
+      }
+      for (int i = (size >>> 1) - 1; i >= 0; i--) {
+        siftDown(i, heap[i]);
+      }
+    }
+    return removed;
+  }
+
+  private void removeAt(int index) {
+    Expiring removed = heap[index];
+    removed.heapIndex = -1;
+    Expiring last = heap[--size];
+    heap[size] = null;
+    if (index == size) {
+      return;
+    }
+    siftDown(index, last);
+    if (heap[index] == last) {
+      siftUp(index, last);
+    }
+  }
+
+  private void siftUp(int index, Expiring node) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      Expiring other = heap[parent];
+      if (node.compareTo(other) >= 0) {
+        break;
+      }
+      place(index, other);
+      index = parent;
+    }
+    place(index, node);
+  }
+
+  private void siftDown(int index, Expiring node) {
+    int half = size >>> 1;
+    while (index < half) {
+      int child = (index << 1) + 1;
+      int right = child + 1;
+      if (right < size && heap[right].compareTo(heap[child]) < 0) {
+        child = right;
+      }
+      Expiring other = heap[child];
+      if (node.compareTo(other) <= 0) {
+        break;
+      }
+      place(index, other);
+      index = child;
+    }
+    place(index, node);
+  }
+
+  private void place(int index, Expiring node) {
+    heap[index] = node;
+    node.heapIndex = index;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An intrusive index of tasks grouped by owner. Each owner maps to the head of a doubly linked list
+ * threaded through the tasks themselves, so indexing and removal are constant time.
+ */
+final class OwnerIndex {
+  private final Map<Object, Expiring> heads = new HashMap<>();
+
+  /**
+   * Index a task under the given owner, moving it if it was indexed under a different owner.
+   * @param node the task to index
+   * @param owner the owner or null to remove the task from the index
+   */
+  void add(Expiring node, @Nullable Object owner) {
+    if (node.owner == owner) {
+      return;
+    }
+    remove(node);
+    if (owner == null) {
+      return;
+    }
+    Expiring head = heads.put(owner, node);
+    node.ownerNext = head;
+    if (head != null) {
+      head.ownerPrev = node;
+    }
+    node.owner = owner;
+  }
+
+  /**
+   * Remove a task from the index if present.
+   * @param node the task to remove
+   */
+  void remove(Expiring node) {
+    Object owner = node.owner;
+    if (owner == null) {
+      return;
+    }
+    Expiring prev = node.ownerPrev;
+    Expiring next = node.ownerNext;
+    if (prev == null) {
+      if (next == null) {
+        heads.remove(owner);
+      } else {
+        heads.put(owner, next);
+      }
+    } else {
+      prev.ownerNext = next;
+    }
+    if (next != null) {
+      next.ownerPrev = prev;
+    }
+    reset(node);
+  }
+
+  /**
+   * Remove all tasks indexed under the given owner.
+   * @param owner the owner
+   * @param action the action to perform on each removed task after it has been unindexed
+   * @return the amount of removed tasks for which the action returned true
+   */
+  int removeAll(Object owner, Predicate<? super Expiring> action) {
+    int count = 0;
+    Expiring node = heads.remove(owner);
+    while (node != null) {
+      Expiring next = node.ownerNext;
+      reset(node);
+      if (action.test(node)) {
+        ++count;
+      }
+      node = next;
+    }
+    return count;
+  }
+
+  /**
+   * Remove all indexed tasks.
+   */
+  void clear() {
+    for (Expiring head : heads.values()) {
+      for (Expiring node = head; node != null; ) {
+        Expiring next = node.ownerNext;
+        reset(node);
+        node = next;
+      }
+    }
+    heads.clear();
+  }
+
+  private static void reset(Expiring node) {
+    node.ownerPrev = node.ownerNext = null;
+    node.owner = null;
+  }
+}
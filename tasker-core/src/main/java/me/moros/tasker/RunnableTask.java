@@ -0,0 +1,46 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker;
+
+/**
+ * A one-shot task without a result, used for fire-and-forget execution.
+ */
+final class RunnableTask extends Expiring implements Labeled {
+  private final Runnable task;
+
+  RunnableTask(Runnable task) {
+    this.task = task;
+  }
+
+  @Override
+  public void run() {
+    task.run();
+  }
+
+  @Override
+  public String label() {
+    return Labeled.labelOf(task);
+  }
+
+  @Override
+  public String toString() {
+    return "Run once: " + task;
+  }
+}
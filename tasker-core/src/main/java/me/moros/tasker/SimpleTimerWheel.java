@@ -20,42 +20,62 @@
 package me.moros.tasker;
 
 import java.util.function.Consumer;
-import java.util.function.Function;
-
-import me.moros.tasker.TaskList.PendingTaskList;
 
 final class SimpleTimerWheel extends AbstractTimerWheel {
   private final TaskList[] wheel;
-  private int index;
+  private final Bitmap occupancy;
+  private final int mask;
 
+  /**
+   * Create a simple wheel.
+   * @param length the amount of buckets, must be a power of two and at least 2
+   */
   SimpleTimerWheel(int length) {
+    super(length);
     wheel = new TaskList[length];
+    occupancy = new Bitmap(length);
     for (int i = 0; i < length; i++) {
-      wheel[i] = new PendingTaskList();
+      wheel[i] = new TaskList(occupancy, i);
     }
+    mask = length - 1;
   }
 
   @Override
   protected void advanceSync() {
-    incrementTick();
-    expire(wheel[index]);
-    index = (index + 1) % wheel.length;
+    expire(wheel[currentTick() & mask]);
+  }
+
+  @Override
+  protected int idleTicks() {
+    int distance = occupancy.distance((currentTick() + 1) & mask);
+    return distance < 0 ? Integer.MAX_VALUE : distance;
   }
 
   @Override
-  protected void shutdownSync(boolean run) {
-    Consumer<? super Expiring> action = run ? Expiring::run : Function.identity()::apply;
-    for (TaskList tasks : wheel) {
-      tasks.clear(action);
+  protected void shutdownSync(Consumer<? super Expiring> action) {
+    for (int i = occupancy.nextSetBit(0); i >= 0; i = occupancy.nextSetBit(i + 1)) {
+      wheel[i].clear(action);
     }
   }
 
   @Override
   protected TaskList findBucket(int ticks) {
-    if (ticks > wheel.length) {
-      throw new IllegalArgumentException("Provided ticks (" + ticks + ") greater than capacity (" + wheel.length + ")!");
-    }
-    int innerIndex = (index + ticks) % wheel.length;
-    return wheel[innerIndex];
+    // Tasks without delay expire on the next tick
+    return wheel[(currentTick() + Math.max(1, ticks)) & mask];
+  }
+
+  @Override
+  protected int bucketCount() {
+    return wheel.length;
+  }
+
+  @Override
+  protected TaskList bucket(int index) {
+    return wheel[index];
+  }
+
+  @Override
+  protected int finestSpan() {
+    return wheel.length;
   }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker;
+
+import java.util.Objects;
+
+/**
+ * Handles exceptions thrown by tasks while a {@link TimerWheel} is advancing.
+ * <br>
+ * A failing task never prevents the remaining expired tasks from executing. The returned policy
+ * decides what happens to the failing task if it is repeating, and is ignored for one-shot tasks.
+ * @see TimerWheel#errorHandler(TaskErrorHandler)
+ */
+@FunctionalInterface
+public interface TaskErrorHandler {
+  /**
+   * Handle an exception or error thrown by a task. Virtual machine errors are never handled and propagate
+   * to the caller that advanced the wheel.
+   * @param task the task that failed
+   * @param error the thrown exception or error
+   * @return the policy to apply if the task is repeating
+   */
+  Policy handle(Task task, Throwable error);
+
+  /**
+   * Get the default error handler that reports exceptions to the current thread's uncaught exception handler
+   * and keeps repeating tasks scheduled.
+   * @return the default error handler
+   */
+  static TaskErrorHandler defaults() {
+    return uncaught(Policy.KEEP);
+  }
+
+  /**
+   * Create an error handler that reports exceptions to the current thread's uncaught exception handler.
+   * @param policy the policy to apply to repeating tasks
+   * @return the error handler
+   */
+  static TaskErrorHandler uncaught(Policy policy) {
+    Objects.requireNonNull(policy);
+    return (task, error) -> {
+      Thread thread = Thread.currentThread();
+      thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+      return policy;
+    };
+  }
+
+  /**
+   * What to do with a repeating task that has failed.
+   */
+  enum Policy {
+    /**
+     * Reschedule the task with its normal period.
+     */
+    KEEP,
+    /**
+     * Cancel the task.
+     */
+    CANCEL,
+    /**
+     * Reschedule the task with a delay that doubles for each consecutive failure, up to 64 times its period.
+     */
+    BACK_OFF
+  }
+}
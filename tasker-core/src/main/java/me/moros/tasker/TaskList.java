@@ -19,19 +19,45 @@
 
 package me.moros.tasker;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.function.Consumer;
 
-import me.moros.tasker.TaskList.PendingTaskList;
 import org.jspecify.annotations.Nullable;
 
-sealed class TaskList permits PendingTaskList {
+final class TaskList {
+  private static final VarHandle TOMBSTONES;
+
+  static {
+    try {
+      TOMBSTONES = MethodHandles.lookup().findVarHandle(TaskList.class, "tombstones", int.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final @Nullable Bitmap occupancy;
+  private final int slot;
   private @Nullable Expiring first;
   private @Nullable Expiring last;
+  private int size;
+  private volatile int tombstones; // An estimate of cancelled tasks that are still linked
 
   TaskList() {
+    this(null, 0);
   }
 
-  final @Nullable Expiring unlinkFirst() {
+  /**
+   * Create a list that flags whether it holds any tasks in the given bitmap.
+   * @param occupancy the bitmap to update
+   * @param slot the index of this list in the bitmap
+   */
+  TaskList(@Nullable Bitmap occupancy, int slot) {
+    this.occupancy = occupancy;
+    this.slot = slot;
+  }
+
+  @Nullable Expiring unlinkFirst() {
     final Expiring toRemove = first;
     if (toRemove != null) {
       final Expiring next = toRemove.next();
@@ -39,15 +65,18 @@ sealed class TaskList permits PendingTaskList {
       first = next;
       if (next == null) {
         last = null;
+        tombstones = 0;
+        vacated();
       } else {
         next.previous(null);
       }
       toRemove.parent = null;
+      --size;
     }
     return toRemove;
   }
 
-  final void unlink(Expiring node) {
+  void unlink(Expiring node) {
     final Expiring next = node.next();
     final Expiring prev = node.previous();
     if (prev == null) {
@@ -63,50 +92,69 @@ sealed class TaskList permits PendingTaskList {
       node.next(null);
     }
     node.parent = null;
+    if (--size == 0) {
+      tombstones = 0;
+      vacated();
+    }
   }
 
-  final @Nullable Expiring first() {
-    return first;
+  int size() {
+    return size;
   }
 
-  // Sorted add to reduce bookkeeping costs
-  void add(Expiring node) {
-    Expiring check = first;
-    while (check != null) {
-      if (node.compareTo(check) <= 0) {
-        linkBefore(node, check);
-        return;
-      }
-      check = check.next();
-    }
-    linkLast(node);
+  int tombstones() {
+    return tombstones;
   }
 
-  final void linkBefore(Expiring node, Expiring next) {
-    final Expiring prev = next.previous();
-    node.previous(prev);
-    node.next(next);
-    next.previous(node);
-    if (prev == null) {
-      first = node;
-    } else {
-      prev.next(node);
+  void tombstone() {
+    TOMBSTONES.getAndAdd(this, 1);
+  }
+
+  void clearTombstones(int count) {
+    TOMBSTONES.getAndAdd(this, -count);
+  }
+
+  /**
+   * Unlink any cancelled tasks if they make up at least half of this list.
+   * @param action the action to perform on each unlinked task
+   * @return the amount of unlinked tasks
+   */
+  int compact(Consumer<? super Expiring> action) {
+    int cancelled = tombstones;
+    if (cancelled == 0 || cancelled < (size >> 1)) {
+      return 0;
+    }
+    clearTombstones(cancelled);
+    int removed = 0;
+    for (Expiring node = first; node != null; ) {
+      Expiring next = node.next();
+      if (!node.isScheduled()) {
+        unlink(node);
+        action.accept(node);
+        ++removed;
+      }
+      node = next;
     }
+    return removed;
   }
 
-  final void linkLast(Expiring node) {
+  void add(Expiring node) {
     final Expiring oldLast = last;
     node.previous(oldLast);
     node.next(null);
     last = node;
     if (oldLast == null) {
       first = node;
+      if (occupancy != null) {
+        occupancy.set(slot);
+      }
     } else {
       oldLast.next(node);
     }
+    ++size;
   }
 
-  final void clear(Consumer<? super Expiring> action) {
+  void clear(Consumer<? super Expiring> action) {
     // Clearing all the links between nodes is "unnecessary", but:
     // - helps a generational GC if the discarded nodes inhabit more than one generation
     // - is sure to free memory even if there is a reachable Iterator
@@ -115,21 +163,20 @@ sealed class TaskList permits PendingTaskList {
       node.next(null);
       node.previous(null);
       node.parent = null;
-      action.accept(node); // Call action after node has been unlinked to avoid issues with self cancelling
+      if (node.isScheduled()) {
+        action.accept(node); // Call action after node has been unlinked to avoid issues with self cancelling
+      }
       node = next;
     }
     first = last = null;
+    size = 0;
+    tombstones = 0;
+    vacated();
   }
 
-  static final class PendingTaskList extends TaskList {
-    PendingTaskList() {
-    }
-
-    // Optimized add at the end of the list without sorting
-    @Override
-    void add(Expiring node) {
-      linkLast(node);
+  private void vacated() {
+    if (occupancy != null) {
+      occupancy.clear(slot);
     }
   }
 }
-
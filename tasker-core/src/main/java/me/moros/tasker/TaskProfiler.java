@@ -0,0 +1,136 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A {@link WheelMetrics} listener that profiles task execution times.
+ * <br>
+ * Executions are aggregated by {@link Labeled#labelOf(Object) label} over a sliding window of ticks,
+ * and individual executions that exceed a threshold are reported as soon as they complete.
+ * Tasks can be given explicit labels using {@link Labeled}, otherwise they are labeled by the class
+ * that declared them.
+ * <br>
+ * Querying the profiler is thread-safe.
+ * @see TimerWheel#metrics(WheelMetrics)
+ */
+public final class TaskProfiler implements WheelMetrics {
+  private final List<Map<String, Stats>> window;
+  private final long thresholdNanos;
+  private final ObjLongConsumer<String> slowTaskHandler;
+  private int cursor;
+
+  /**
+   * Create a new task profiler without slow task detection.
+   * @param windowTicks the amount of ticks to aggregate executions over
+   */
+  public TaskProfiler(int windowTicks) {
+    this(windowTicks, Long.MAX_VALUE, (label, nanos) -> {
+    });
+  }
+
+  /**
+   * Create a new task profiler.
+   * @param windowTicks the amount of ticks to aggregate executions over
+   * @param thresholdNanos the execution time in nanoseconds above which a task is considered slow
+   * @param slowTaskHandler the handler that receives the label and execution time of slow tasks
+   */
+  public TaskProfiler(int windowTicks, long thresholdNanos, ObjLongConsumer<String> slowTaskHandler) {
+    if (windowTicks <= 0 || thresholdNanos < 0) {
+      throw new IllegalArgumentException();
+    }
+    this.window = new ArrayList<>(windowTicks);
+    for (int i = 0; i < windowTicks; i++) {
+      window.add(new HashMap<>());
+    }
+    this.thresholdNanos = thresholdNanos;
+    this.slowTaskHandler = slowTaskHandler;
+  }
+
+  @Override
+  public void expired(Task task, long nanos) {
+    String label = Labeled.labelOf(task);
+    synchronized (this) {
+      window.get(cursor).computeIfAbsent(label, k -> new Stats()).add(nanos);
+    }
+    if (nanos > thresholdNanos) {
+      slowTaskHandler.accept(label, nanos);
+    }
+  }
+
+  @Override
+  public synchronized void advanced(int tick, int tasks, int largestBucket, long nanos) {
+    if (++cursor >= window.size()) {
+      cursor = 0;
+    }
+    window.get(cursor).clear();
+  }
+
+  /**
+   * Get the most expensive tasks in the current window, ordered by total execution time.
+   * @param limit the maximum amount of profiles to return
+   * @return the task profiles
+   */
+  public synchronized List<TaskProfile> top(int limit) {
+    Map<String, Stats> merged = new HashMap<>();
+    for (Map<String, Stats> tick : window) {
+      tick.forEach((label, stats) -> merged.computeIfAbsent(label, k -> new Stats()).merge(stats));
+    }
+    return merged.entrySet().stream()
+      .map(e -> e.getValue().toProfile(e.getKey()))
+      .sorted(Comparator.comparingLong(TaskProfile::totalNanos).reversed())
+      .limit(limit)
+      .toList();
+  }
+
+  /**
+   * Discard all collected executions.
+   */
+  public synchronized void reset() {
+    window.forEach(Map::clear);
+  }
+
+  private static final class Stats {
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    private void add(long nanos) {
+      ++count;
+      totalNanos += nanos;
+      maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    private void merge(Stats other) {
+      count += other.count;
+      totalNanos += other.totalNanos;
+      maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    private TaskProfile toProfile(String label) {
+      return new TaskProfile(label, count, totalNanos, maxNanos);
+    }
+  }
+}
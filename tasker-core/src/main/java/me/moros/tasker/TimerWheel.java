@@ -19,9 +19,15 @@
 
 package me.moros.tasker;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
 
+import org.jspecify.annotations.Nullable;
+
 /**
  * Represents a Timer Wheel data structure designed for use in games with a consistent tick duration.
  * <br>
@@ -49,6 +55,62 @@ public interface TimerWheel {
    */
   void advance();
 
+  /**
+   * Advance this wheel by a single tick with a time budget for executing expired tasks.
+   * Once the budget is exceeded, any remaining expired tasks are deferred and executed first on the next tick.
+   * At least one task is executed per tick regardless of the budget, so the oldest deferred task always makes progress.
+   * @param nanosBudget the maximum amount of time in nanoseconds to spend executing tasks, must be positive
+   * @throws IllegalArgumentException if the budget is not positive
+   * @see #budgetStats()
+   */
+  void advance(long nanosBudget);
+
+  /**
+   * Advance this wheel until its current tick reaches the target tick, expiring tasks in order as if {@link #advance()}
+   * was called once for every tick in between. This is meant for catching up after a pause, so ticks that would
+   * neither expire nor cascade any tasks are skipped without visiting their buckets and aren't reported to the
+   * wheel's {@link #metrics(WheelMetrics) metrics} listener. Tasks scheduled by expiring tasks are accounted for.
+   * If the target tick is not after the current tick, this does nothing.
+   * @param targetTick the tick to advance to
+   */
+  void advanceTo(int targetTick);
+
+  /**
+   * Get the amount of ticks until the next {@link #advance()} that may expire tasks. Wheels keep track of
+   * which buckets hold tasks, so this does not need to scan empty buckets. The result is a lower bound as
+   * {@link #hierarchical() Hierarchical} wheels report the tick when tasks in higher levels cascade, and cancelled
+   * tasks are counted until they are removed.
+   * @return the amount of ticks or {@link Integer#MAX_VALUE} if the wheel holds no tasks
+   */
+  int ticksUntilNextExpiry();
+
+  /**
+   * Get statistics about tasks that were deferred due to an exceeded {@link #advance(long) tick budget}.
+   * @return the budget statistics
+   */
+  BudgetStats budgetStats();
+
+  /**
+   * Set the listener that receives events from this wheel. By default, wheels use a {@link WheelMetrics#noop() no-op}
+   * listener and skip collecting metrics altogether.
+   * @param metrics the metrics listener
+   */
+  void metrics(WheelMetrics metrics);
+
+  /**
+   * Set the handler for exceptions thrown by tasks. A failing task never prevents other expired tasks from
+   * executing. By default, exceptions are reported to the {@link TaskErrorHandler#defaults() uncaught exception handler}
+   * and repeating tasks are kept.
+   * @param errorHandler the error handler
+   */
+  void errorHandler(TaskErrorHandler errorHandler);
+
+  /**
+   * Get the total amount of task executions that threw an exception.
+   * @return the amount of failures
+   */
+  long failures();
+
   /**
    * Create and schedule a task on this timer wheel.
    * @param consumer the task to schedule
@@ -63,8 +125,53 @@ public interface TimerWheel {
     return schedule(task, delay);
   }
 
+  /**
+   * Schedule a one-shot task on this timer wheel without keeping a handle to it.
+   * <br>
+   * Any exception thrown by the task is reported to the wheel's {@link #errorHandler(TaskErrorHandler) error handler}.
+   * @param task the task to schedule
+   * @param delay the delay in game ticks
+   * @see #schedule(Expiring, int)
+   */
+  default void runLater(Runnable task, int delay) {
+    Objects.requireNonNull(task);
+    schedule(new RunnableTask(task), delay);
+  }
+
+  /**
+   * Create and schedule a task owned by the given key on this timer wheel.
+   * @param consumer the task to schedule
+   * @param delay the delay in game ticks
+   * @param period the repeat period in game ticks
+   * @param owner the owner of the task
+   * @return the scheduled task
+   * @see #cancelAll(Object)
+   */
+  default Task schedule(Consumer<? super Task> consumer, int delay, int period, Object owner) {
+    Objects.requireNonNull(consumer);
+    Objects.requireNonNull(owner);
+    return schedule(new LinkedTask(consumer, period), delay, owner);
+  }
+
+  /**
+   * Schedule a one-shot task owned by the given key on this timer wheel without keeping a handle to it.
+   * @param task the task to schedule
+   * @param delay the delay in game ticks
+   * @param owner the owner of the task
+   * @see #runLater(Runnable, int)
+   * @see #cancelAll(Object)
+   */
+  default void runLater(Runnable task, int delay, Object owner) {
+    Objects.requireNonNull(task);
+    Objects.requireNonNull(owner);
+    schedule(new RunnableTask(task), delay, owner);
+  }
+
   /**
    * Schedule a task on this timer wheel.
+   * <br>
+   * Tasks submitted from a thread other than the one advancing the wheel are queued without blocking
+   * and linked into the wheel at the start of the next {@link #advance()}.
    * @param task the task to schedule
    * @param delay the delay in game ticks
    * @param <T> the type of task
@@ -73,6 +180,96 @@ public interface TimerWheel {
    */
   <T extends Expiring> T schedule(T task, int delay);
 
+  /**
+   * Schedule a task owned by the given key on this timer wheel. The wheel indexes tasks by owner
+   * so that they can be cancelled together without holding on to their handles.
+   * <br>
+   * Owners are compared by equality, so keys should have stable {@link Object#hashCode() hashCode} and
+   * {@link Object#equals(Object) equals} implementations.
+   * @param task the task to schedule
+   * @param delay the delay in game ticks
+   * @param owner the owner of the task or null to schedule without an owner
+   * @param <T> the type of task
+   * @return the scheduled task
+   * @see #cancelAll(Object)
+   */
+  <T extends Expiring> T schedule(T task, int delay, @Nullable Object owner);
+
+  /**
+   * Create and schedule a repeating task with a phase offset that balances load across ticks.
+   * @param consumer the task to schedule
+   * @param delay the earliest delay in game ticks
+   * @param period the repeat period in game ticks
+   * @return the scheduled task
+   * @see #scheduleSpread(Expiring, int)
+   */
+  default Task scheduleSpread(Consumer<? super Task> consumer, int delay, int period) {
+    Objects.requireNonNull(consumer);
+    return scheduleSpread(new LinkedTask(consumer, period), delay);
+  }
+
+  /**
+   * Schedule a repeating task that tolerates jitter on this timer wheel.
+   * <br>
+   * Instead of expiring exactly after the given delay, the task first expires on the least occupied tick within
+   * a single period after it. Since repeating tasks keep their phase, this prevents tasks with the same period that
+   * are scheduled together from piling up on the same tick. The search covers at most as many ticks as the wheel's
+   * finest level, past which buckets hold multiple ticks and tasks are balanced more coarsely.
+   * @param task the task to schedule
+   * @param delay the earliest delay in game ticks
+   * @param <T> the type of task
+   * @return the scheduled task
+   * @see #occupancy(int)
+   */
+  <T extends Expiring> T scheduleSpread(T task, int delay);
+
+  /**
+   * Get the amount of tasks held in the bucket that a task scheduled with the given delay would be placed in.
+   * Buckets of higher levels in a {@link #hierarchical() Hierarchical} wheel cover multiple ticks, and delays
+   * beyond the wheel's horizon report the size of its overflow queue. Cancelled tasks that have not been removed yet
+   * are included.
+   * @param delay the delay in game ticks
+   * @return the bucket occupancy
+   */
+  int occupancy(int delay);
+
+  /**
+   * Cancel all pending tasks owned by the given key. This takes time proportional to the amount of tasks
+   * the owner has scheduled.
+   * @param owner the owner of the tasks
+   * @return the amount of cancelled tasks
+   */
+  int cancelAll(Object owner);
+
+  /**
+   * Create and schedule multiple tasks with the same delay and period on this timer wheel.
+   * @param consumers the tasks to schedule
+   * @param delay the delay in game ticks
+   * @param period the repeat period in game ticks
+   * @return the scheduled tasks in iteration order
+   * @see #scheduleAll(Collection, int)
+   */
+  default List<Task> scheduleAll(Collection<? extends Consumer<? super Task>> consumers, int delay, int period) {
+    List<LinkedTask> tasks = new ArrayList<>(consumers.size());
+    for (Consumer<? super Task> consumer : consumers) {
+      Objects.requireNonNull(consumer);
+      tasks.add(new LinkedTask(consumer, period));
+    }
+    scheduleAll(tasks, delay);
+    return Collections.unmodifiableList(tasks);
+  }
+
+  /**
+   * Schedule multiple tasks with the same delay on this timer wheel.
+   * <br>
+   * This is equivalent to scheduling each task individually, but the wheel is only synchronized
+   * and the target bucket is only resolved once for the whole batch.
+   * @param tasks the tasks to schedule
+   * @param delay the delay in game ticks
+   * @see #schedule(Expiring, int)
+   */
+  void scheduleAll(Collection<? extends Expiring> tasks, int delay);
+
   /**
    * Shutdown this timer wheel by clearing all scheduled tasks.
    * @param run whether to run each expiring task when cleared
@@ -80,21 +277,36 @@ public interface TimerWheel {
   void shutdown(boolean run);
 
   /**
-   * Create a hierarchical timer wheel suited for variable expiration.
+   * Create a hierarchical timer wheel suited for variable expiration using the {@link WheelSpec#defaults() default}
+   * geometry.
    * @return the timer wheel instance
    */
   static TimerWheel hierarchical() {
-    return new HierarchicalTimerWheel();
+    return hierarchical(WheelSpec.defaults());
+  }
+
+  /**
+   * Create a hierarchical timer wheel suited for variable expiration.
+   * @param spec the wheel geometry
+   * @return the timer wheel instance
+   * @see WheelSpec
+   */
+  static TimerWheel hierarchical(WheelSpec spec) {
+    Objects.requireNonNull(spec);
+    return new HierarchicalTimerWheel(spec);
   }
 
   /**
    * Create a simple timer wheel for tasks that expire shortly. This offers better performance
    * than a {@link #hierarchical() Hierarchical} wheel by eliminating bookkeeping and wheel cascading
-   * at the cost of memory. For that reason, the wheel's capacity will be limited to the given size.
-   * @param capacity the wheel's max capacity in ticks
+   * at the cost of memory. For that reason, the wheel's capacity will be rounded up to the next power of two,
+   * between 2 and 2<sup>30</sup> ticks. Tasks with a delay of at least the wheel's capacity are held in a secondary
+   * queue until they are in range.
+   * @param capacity the wheel's capacity in ticks
    * @return the timer wheel instance
    */
   static TimerWheel simple(int capacity) {
-    return new SimpleTimerWheel(Math.max(1, capacity));
+    int length = Math.clamp(capacity, 2, 1 << 30);
+    return new SimpleTimerWheel(Integer.highestOneBit(length - 1) << 1);
   }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker;
+
+/**
+ * A listener that receives events from a {@link TimerWheel}, useful for collecting metrics.
+ * <br>
+ * All methods have empty default implementations so only the relevant events need to be overridden.
+ * Events are emitted while the wheel is locked, either on the thread advancing the wheel or on the
+ * thread scheduling a task, so implementations should be fast and must not interact with the wheel.
+ * @see TimerWheel#metrics(WheelMetrics)
+ */
+public interface WheelMetrics {
+  /**
+   * Get a listener that ignores all events. Wheels using it skip collecting metrics altogether.
+   * @return the no-op listener
+   */
+  static WheelMetrics noop() {
+    return NoopMetrics.INSTANCE;
+  }
+
+  /**
+   * Called when a task is linked into the wheel for the first time after being scheduled.
+   * Tasks scheduled from another thread are reported once they are picked up by the wheel.
+   * @param delay the delay in ticks
+   */
+  default void scheduled(int delay) {
+  }
+
+  /**
+   * Called when a repeating task is linked back into the wheel after executing.
+   * @param period the repeat period in ticks
+   */
+  default void rescheduled(int period) {
+  }
+
+  /**
+   * Called when a task has expired, right after it is executed.
+   * @param task the expired task
+   * @param nanos the time spent executing the task in nanoseconds
+   * @see TaskProfiler
+   */
+  default void expired(Task task, long nanos) {
+  }
+
+  /**
+   * Called when cancelled tasks are discarded by the wheel.
+   * @param count the amount of discarded tasks
+   */
+  default void cancelled(int count) {
+  }
+
+  /**
+   * Called when a bucket of a hierarchical wheel is cascaded to lower levels.
+   * @param level the level of the cascaded bucket
+   * @param tasks the amount of tasks in the bucket
+   */
+  default void cascaded(int level, int tasks) {
+  }
+
+  /**
+   * Called at the end of every tick.
+   * @param tick the tick that was processed
+   * @param tasks the amount of tasks held by the wheel, including cancelled tasks that have not been discarded yet
+   * @param largestBucket the length of the largest bucket that was linked into or expired during this tick
+   * @param nanos the time spent advancing the wheel in nanoseconds
+   */
+  default void advanced(int tick, int tasks, int largestBucket, long nanos) {
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker;
+
+import java.util.Arrays;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Describes the geometry of a {@link TimerWheel#hierarchical(WheelSpec) Hierarchical} timer wheel.
+ * <br>
+ * Each level is a circular array of buckets. The first level has a resolution of a single tick, and the resolution
+ * of every following level equals the total span of the level below it. Tasks are placed in the lowest level
+ * whose span covers their delay and cascade down as they approach expiration.
+ * <br>
+ * If every level has a power of two number of buckets, the wheel indexes buckets with shifts and masks
+ * instead of division.
+ */
+public final class WheelSpec {
+  private static final WheelSpec DEFAULT = of(60, 40, 30, 8, 3); // 3s, 2m, 1h, 8h, 1d
+  private static final WheelSpec POWER_OF_TWO = powerOfTwo(6, 6, 6, 5); // 3.2s, 3.4m, 3.6h, 4.9d
+
+  private final int[] buckets;
+  private final int[] resolutions;
+  private final int horizon;
+  private final boolean powerOfTwo;
+
+  private WheelSpec(int[] buckets) {
+    if (buckets.length == 0) {
+      throw new IllegalArgumentException("A wheel requires at least one level!");
+    }
+    this.buckets = buckets;
+    this.resolutions = new int[buckets.length];
+    long span = 1;
+    boolean powerOfTwo = true;
+    for (int i = 0; i < buckets.length; i++) {
+      int size = buckets[i];
+      if (size < 2) {
+        throw new IllegalArgumentException("Level " + i + " must have at least 2 buckets but has " + size + "!");
+      }
+      resolutions[i] = (int) span;
+      span *= size;
+      if (span > (1 << 30)) {
+        throw new IllegalArgumentException("Total wheel span exceeds " + (1 << 30) + " ticks!");
+      }
+      powerOfTwo &= Integer.bitCount(size) == 1;
+    }
+    this.horizon = (int) span;
+    this.powerOfTwo = powerOfTwo;
+  }
+
+  /**
+   * Get the number of levels.
+   * @return the number of levels
+   */
+  public int levels() {
+    return buckets.length;
+  }
+
+  /**
+   * Get the number of buckets for the given level.
+   * @param level the level index
+   * @return the number of buckets
+   */
+  public int buckets(int level) {
+    return buckets[level];
+  }
+
+  /**
+   * Get the amount of game ticks covered by each bucket of the given level.
+   * @param level the level index
+   * @return the bucket resolution in game ticks
+   */
+  public int resolution(int level) {
+    return resolutions[level];
+  }
+
+  /**
+   * Get the total amount of game ticks covered by all levels.
+   * @return the wheel's horizon in game ticks
+   */
+  public int horizon() {
+    return horizon;
+  }
+
+  /**
+   * Check whether every level has a power of two number of buckets.
+   * @return true if buckets can be indexed with masks, false otherwise
+   */
+  public boolean isPowerOfTwo() {
+    return powerOfTwo;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object obj) {
+    return obj == this || (obj instanceof WheelSpec other && Arrays.equals(buckets, other.buckets));
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(buckets);
+  }
+
+  @Override
+  public String toString() {
+    return "WheelSpec" + Arrays.toString(buckets);
+  }
+
+  /**
+   * Get the default geometry: 5 levels spanning 3 seconds, 2 minutes, 1 hour, 8 hours and 1 day.
+   * @return the default wheel spec
+   */
+  public static WheelSpec defaults() {
+    return DEFAULT;
+  }
+
+  /**
+   * Get a power of two geometry: 4 levels spanning roughly 3 seconds, 3 minutes, 3 hours and 5 days.
+   * @return the power of two wheel spec
+   */
+  public static WheelSpec powerOfTwo() {
+    return POWER_OF_TWO;
+  }
+
+  /**
+   * Create a wheel spec from the number of buckets in each level, starting from the lowest level.
+   * @param buckets the amount of buckets for each level
+   * @return the wheel spec
+   * @throws IllegalArgumentException if there are no levels, a level has less than 2 buckets
+   * or the total span exceeds 2<sup>30</sup> ticks
+   */
+  public static WheelSpec of(int... buckets) {
+    return new WheelSpec(buckets.clone());
+  }
+
+  /**
+   * Create a power of two wheel spec, where each level holds {@code 1 << bits} buckets.
+   * @param bits the amount of bits for each level, starting from the lowest level
+   * @return the wheel spec
+   * @throws IllegalArgumentException if there are no levels, a level has less than 1 bit
+   * or the total span exceeds 2<sup>30</sup> ticks
+   */
+  public static WheelSpec powerOfTwo(int... bits) {
+    int[] buckets = new int[bits.length];
+    for (int i = 0; i < bits.length; i++) {
+      if (bits[i] < 1 || bits[i] > 30) {
+        throw new IllegalArgumentException("Level " + i + " must have between 1 and 30 bits but has " + bits[i] + "!");
+      }
+      buckets[i] = 1 << bits[i];
+    }
+    return new WheelSpec(buckets);
+  }
+}
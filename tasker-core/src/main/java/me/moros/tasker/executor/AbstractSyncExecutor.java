@@ -19,28 +19,44 @@
 
 package me.moros.tasker.executor;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+import me.moros.tasker.Labeled;
 import me.moros.tasker.Task;
+import me.moros.tasker.TaskErrorHandler;
 import me.moros.tasker.TimerWheel;
+import me.moros.tasker.WheelMetrics;
 import org.jspecify.annotations.Nullable;
 
 /**
  * An abstract sync executor utilizing that delegates to a {@link TimerWheel}.
+ * <br>
+ * Tasks without delay are held in a separate array-backed queue that is scheduled on the wheel as a single task,
+ * so they are run whenever the wheel advances.
  */
 public abstract class AbstractSyncExecutor implements SyncExecutor {
   protected final TimerWheel wheel;
+  private final DeliveryQueue deliveries;
+  private final RunQueue nextTick;
+  private volatile WheelMetrics metrics = WheelMetrics.noop();
+  private volatile TaskErrorHandler errorHandler = TaskErrorHandler.defaults();
 
   protected AbstractSyncExecutor(TimerWheel wheel) {
     this.wheel = Objects.requireNonNull(wheel);
+    this.deliveries = new DeliveryQueue(wheel, this::runQueued);
+    this.nextTick = new RunQueue(wheel, this::runQueued);
   }
 
   protected AbstractSyncExecutor() {
-    this.wheel = TimerWheel.hierarchical();
+    this(TimerWheel.hierarchical());
   }
 
   @Override
@@ -48,10 +64,26 @@ public abstract class AbstractSyncExecutor implements SyncExecutor {
     Objects.requireNonNull(task);
     checkValid();
     CompletableFuture<V> future = new CompletableFuture<>();
-    wheel.schedule(bind(task, future), ticks, 0);
+    Bound<V> bound = new Bound<>(task, future);
+    if (ticks <= 0) {
+      nextTick.add(bound);
+    } else {
+      wheel.schedule(bound, ticks, 0);
+    }
     return future;
   }
 
+  @Override
+  public void runLater(Runnable task, int ticks) {
+    Objects.requireNonNull(task);
+    checkValid();
+    if (ticks <= 0) {
+      nextTick.add(task);
+    } else {
+      wheel.runLater(task, ticks);
+    }
+  }
+
   @Override
   public Task repeat(Consumer<? super Task> consumer, int ticks, int periodTicks) {
     Objects.requireNonNull(consumer);
@@ -59,9 +91,104 @@ public abstract class AbstractSyncExecutor implements SyncExecutor {
     return wheel.schedule(consumer, ticks, periodTicks);
   }
 
+  @Override
+  public Task repeatSpread(Consumer<? super Task> consumer, int ticks, int periodTicks) {
+    Objects.requireNonNull(consumer);
+    checkValid();
+    return wheel.scheduleSpread(consumer, ticks, periodTicks);
+  }
+
+  @Override
+  public void runLater(Runnable task, int ticks, Object owner) {
+    Objects.requireNonNull(task);
+    checkValid();
+    wheel.runLater(task, ticks, owner);
+  }
+
+  @Override
+  public Task repeat(Consumer<? super Task> consumer, int ticks, int periodTicks, Object owner) {
+    Objects.requireNonNull(consumer);
+    checkValid();
+    return wheel.schedule(consumer, ticks, periodTicks, owner);
+  }
+
+  @Override
+  public int cancelAll(Object owner) {
+    return wheel.cancelAll(owner);
+  }
+
+  @Override
+  public <V> List<CompletableFuture<@Nullable V>> submitAll(Collection<? extends Supplier<@Nullable V>> tasks, int ticks) {
+    checkValid();
+    List<CompletableFuture<@Nullable V>> futures = new ArrayList<>(tasks.size());
+    List<Consumer<? super Task>> consumers = new ArrayList<>(tasks.size());
+    for (Supplier<@Nullable V> task : tasks) {
+      Objects.requireNonNull(task);
+      CompletableFuture<@Nullable V> future = new CompletableFuture<>();
+      futures.add(future);
+      consumers.add(bind(task, future));
+    }
+    wheel.scheduleAll(consumers, ticks, 0);
+    return futures;
+  }
+
+  @Override
+  public List<Task> repeatAll(Collection<? extends Consumer<? super Task>> tasks, int ticks, int periodTicks) {
+    checkValid();
+    return wheel.scheduleAll(tasks, ticks, periodTicks);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <br>
+   * Results are gathered in a single lock-free queue that is drained once per tick.
+   * @see #deliveryLimit(int)
+   */
+  @Override
+  public <T, R> CompletableFuture<@Nullable R> deliver(CompletableFuture<T> source, Function<? super T, ? extends R> stage) {
+    Objects.requireNonNull(source);
+    Objects.requireNonNull(stage);
+    checkValid();
+    return deliveries.deliver(source, stage);
+  }
+
+  /**
+   * Set the maximum amount of {@link #deliver(CompletableFuture, Function) deliveries} to process per tick.
+   * Any excess deliveries are carried over to the following ticks.
+   * @param limit the maximum amount of deliveries per tick
+   */
+  public void deliveryLimit(int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive!");
+    }
+    deliveries.limit(limit);
+  }
+
+  /**
+   * Set the listener that receives events from the underlying timer wheel.
+   * @param metrics the metrics listener
+   * @see TimerWheel#metrics(WheelMetrics)
+   */
+  public void metrics(WheelMetrics metrics) {
+    wheel.metrics(metrics);
+    this.metrics = metrics;
+  }
+
+  /**
+   * Set the handler for exceptions thrown by tasks of the underlying timer wheel.
+   * @param errorHandler the error handler
+   * @see TimerWheel#errorHandler(TaskErrorHandler)
+   */
+  public void errorHandler(TaskErrorHandler errorHandler) {
+    wheel.errorHandler(errorHandler);
+    this.errorHandler = errorHandler;
+  }
+
   @Override
   public final void clear() {
     wheel.shutdown(false);
+    nextTick.clear();
+    deliveries.clear();
   }
 
   @Override
@@ -75,13 +202,63 @@ public abstract class AbstractSyncExecutor implements SyncExecutor {
     }
   }
 
+  private void runQueued(Runnable task) {
+    WheelMetrics metrics = this.metrics;
+    boolean metered = metrics != WheelMetrics.noop();
+    long start = metered ? System.nanoTime() : 0;
+    try {
+      task.run();
+    } catch (VirtualMachineError e) {
+      throw e;
+    } catch (Throwable e) {
+      errorHandler.handle(new QueuedTask(task), e);
+    }
+    if (metered) {
+      metrics.expired(new QueuedTask(task), System.nanoTime() - start);
+    }
+  }
+
   private static <V> Consumer<? super Task> bind(Supplier<@Nullable V> task, CompletableFuture<@Nullable V> future) {
-    return t -> {
+    return new Bound<>(task, future);
+  }
+
+  // Keeps the label of the submitted task visible to profilers
+  private record Bound<V>(Supplier<@Nullable V> task, CompletableFuture<@Nullable V> future)
+    implements Consumer<Task>, Runnable, Labeled {
+    @Override
+    public void accept(Task t) {
+      run();
+    }
+
+    @Override
+    public void run() {
       try {
         future.complete(task.get());
       } catch (Exception ex) {
         future.completeExceptionally(ex);
       }
-    };
+    }
+
+    @Override
+    public String label() {
+      return Labeled.labelOf(task);
+    }
+  }
+
+  // A handle for reporting tasks that were drained from a queue instead of expiring on the wheel
+  private record QueuedTask(Runnable task) implements Task, Labeled {
+    @Override
+    public void run() {
+      task.run();
+    }
+
+    @Override
+    public void cancel() {
+    }
+
+    @Override
+    public String label() {
+      return Labeled.labelOf(task);
+    }
   }
 }
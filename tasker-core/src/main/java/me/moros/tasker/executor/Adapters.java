@@ -0,0 +1,60 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker.executor;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import me.moros.tasker.Labeled;
+import me.moros.tasker.Task;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Adapters for runnables that keep the label of the wrapped task visible to profilers.
+ */
+final class Adapters {
+  private Adapters() {
+  }
+
+  record RunnableConsumer(Runnable task) implements Consumer<Task>, Labeled {
+    @Override
+    public void accept(Task t) {
+      task.run();
+    }
+
+    @Override
+    public String label() {
+      return Labeled.labelOf(task);
+    }
+  }
+
+  record RunnableSupplier(Runnable task) implements Supplier<@Nullable Object>, Labeled {
+    @Override
+    public @Nullable Object get() {
+      task.run();
+      return null;
+    }
+
+    @Override
+    public String label() {
+      return Labeled.labelOf(task);
+    }
+  }
+}
@@ -39,4 +39,35 @@ public interface AsyncExecutor extends TaskExecutor {
   default Task repeat(Runnable task, int ticks, int periodTicks) {
     return repeat(task, toMillis(ticks), toMillis(periodTicks), TimeUnit.MILLISECONDS);
   }
+
+  /**
+   * Schedule a repeating task with the given overlap policy.
+   * @param task the task to schedule
+   * @param ticks the delay before the first task execution in game ticks
+   * @param periodTicks how often to repeat the task in game ticks
+   * @param policy how to handle executions that take longer than the period
+   * @return the scheduled task
+   */
+  default Task repeat(Runnable task, int ticks, int periodTicks, RepeatPolicy policy) {
+    return repeat(task, toMillis(ticks), toMillis(periodTicks), TimeUnit.MILLISECONDS, policy);
+  }
+
+  /**
+   * Schedule a repeating task with the given overlap policy.
+   * <br>
+   * Executors that don't support overlap policies only accept {@link RepeatPolicy#CONCURRENT}.
+   * @param task the task to schedule
+   * @param delay the delay before the first task execution
+   * @param period how often to repeat the task
+   * @param unit the unit of time for delay and period
+   * @param policy how to handle executions that take longer than the period
+   * @return the scheduled task
+   * @throws UnsupportedOperationException if the policy is not supported by this executor
+   */
+  default Task repeat(Runnable task, long delay, long period, TimeUnit unit, RepeatPolicy policy) {
+    if (policy != RepeatPolicy.CONCURRENT) {
+      throw new UnsupportedOperationException("Unsupported repeat policy: " + policy);
+    }
+    return repeat(task, delay, period, unit);
+  }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker.executor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A runnable that completes a future with the result of a supplier, and can be failed if it is never executed.
+ * @param task the supplier
+ * @param future the future to complete
+ * @param <V> the type of result
+ */
+record Completion<V>(Supplier<@Nullable V> task, CompletableFuture<@Nullable V> future) implements Discardable {
+  @Override
+  public void run() {
+    try {
+      future.complete(task.get());
+    } catch (Exception ex) {
+      future.completeExceptionally(ex);
+    }
+  }
+
+  /**
+   * Fail the future because the task will never be executed.
+   * @param cause the reason the task was discarded
+   */
+  @Override
+  public void discard(Exception cause) {
+    future.completeExceptionally(cause);
+  }
+}
@@ -20,6 +20,11 @@
 package me.moros.tasker.executor;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.jspecify.annotations.Nullable;
 
 /**
  * Represents a composite executor composed of a sync and an async task executor.
@@ -37,6 +42,20 @@ public interface CompositeExecutor {
    */
   AsyncExecutor async();
 
+  /**
+   * Run a stage on the async executor and apply a second stage to its result on the sync executor.
+   * @param asyncStage the stage to run asynchronously
+   * @param syncStage the stage to apply to the result in sync
+   * @param <T> the type of the async result
+   * @param <R> the type of the sync result
+   * @return a future that completes with the result of the sync stage
+   * @see SyncExecutor#deliver(CompletableFuture, Function)
+   */
+  default <T, R> CompletableFuture<@Nullable R> pipeline(Supplier<@Nullable T> asyncStage, Function<? super T, ? extends R> syncStage) {
+    Objects.requireNonNull(syncStage);
+    return sync().deliver(async().submit(asyncStage), syncStage);
+  }
+
   /**
    * Shutdown both executors.
    */
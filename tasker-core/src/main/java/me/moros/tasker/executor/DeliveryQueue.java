@@ -0,0 +1,135 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker.executor;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import me.moros.tasker.Expiring;
+import me.moros.tasker.Labeled;
+import me.moros.tasker.TimerWheel;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A lock-free queue of results delivered from other threads that is drained in batches on the thread advancing
+ * a timer wheel. The queue schedules itself on the wheel only when it has pending deliveries.
+ */
+final class DeliveryQueue extends Expiring {
+  private final Queue<Delivery<?, ?>> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean armed = new AtomicBoolean();
+  private final TimerWheel wheel;
+  private final Consumer<Runnable> action;
+  private volatile int limit = Integer.MAX_VALUE;
+
+  /**
+   * Create a new queue.
+   * @param wheel the wheel to schedule the queue on
+   * @param action the action that runs each delivery, must not throw
+   */
+  DeliveryQueue(TimerWheel wheel, Consumer<Runnable> action) {
+    this.wheel = wheel;
+    this.action = action;
+  }
+
+  /**
+   * Apply a function to the result of a future once it is drained by the wheel.
+   * @param source the future to wait for
+   * @param stage the function to apply
+   * @param <T> the type of the source result
+   * @param <R> the type of the function result
+   * @return a future that completes with the function result
+   */
+  <T, R> CompletableFuture<@Nullable R> deliver(CompletableFuture<T> source, Function<? super T, ? extends R> stage) {
+    CompletableFuture<@Nullable R> future = new CompletableFuture<>();
+    source.whenComplete((result, error) -> {
+      queue.offer(new Delivery<>(stage, future, result, error));
+      arm(0);
+    });
+    return future;
+  }
+
+  /**
+   * Set the maximum amount of deliveries to process per tick, any excess is carried over to the next tick.
+   * @param limit the maximum amount of deliveries per tick
+   */
+  void limit(int limit) {
+    this.limit = limit;
+  }
+
+  /**
+   * Fail any pending deliveries and reset the queue after the wheel has been cleared.
+   */
+  void clear() {
+    Delivery<?, ?> delivery;
+    while ((delivery = queue.poll()) != null) {
+      delivery.future.cancel(false);
+    }
+    armed.set(false);
+  }
+
+  private void arm(int delay) {
+    if (armed.compareAndSet(false, true)) {
+      wheel.schedule(this, delay);
+    }
+  }
+
+  @Override
+  public void run() {
+    armed.set(false);
+    int remaining = limit;
+    Delivery<?, ?> delivery;
+    while (remaining-- > 0 && (delivery = queue.poll()) != null) {
+      action.accept(delivery);
+    }
+    if (!queue.isEmpty()) {
+      arm(1);
+    }
+  }
+
+  // Each delivery is reported on its own by the consumer
+  @Override
+  protected boolean isMetered() {
+    return false;
+  }
+
+  private record Delivery<T, R>(Function<? super T, ? extends R> stage, CompletableFuture<@Nullable R> future,
+                                @Nullable T result, @Nullable Throwable error) implements Runnable, Labeled {
+    @Override
+    public void run() {
+      if (error != null) {
+        future.completeExceptionally(error);
+        return;
+      }
+      try {
+        future.complete(stage.apply(result));
+      } catch (Exception ex) {
+        future.completeExceptionally(ex);
+      }
+    }
+
+    @Override
+    public String label() {
+      return Labeled.labelOf(stage);
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker.executor;
+
+/**
+ * Determines how a repeating async task behaves when an execution takes longer than its period.
+ * @see AsyncExecutor#repeat(Runnable, long, long, java.util.concurrent.TimeUnit, RepeatPolicy)
+ */
+public enum RepeatPolicy {
+  /**
+   * Dispatch the task at a fixed rate regardless of previous executions, which may run concurrently.
+   */
+  CONCURRENT,
+  /**
+   * Dispatch the task at a fixed rate, skipping any period in which the previous execution is still running.
+   */
+  SKIP_IF_RUNNING,
+  /**
+   * Dispatch the task at a fixed rate, but if the previous execution is still running, run the task once more
+   * right after it completes. Any further periods that elapse in the meantime are merged into that single run.
+   */
+  COALESCE,
+  /**
+   * Dispatch the task with a fixed delay between the end of an execution and the start of the next.
+   */
+  FIXED_DELAY
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker.executor;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import me.moros.tasker.Expiring;
+import me.moros.tasker.TimerWheel;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An array-backed queue of tasks to run on the next tick.
+ * <br>
+ * Producers append to the active array while the consumer swaps it with a spare array and drains it
+ * outside the lock, so both arrays are reused and tasks submitted while draining run on the following tick.
+ * The queue schedules itself on the wheel only when it holds tasks, so it is drained whenever the wheel advances.
+ */
+final class RunQueue extends Expiring {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final TimerWheel wheel;
+  private final Consumer<Runnable> action;
+  private @Nullable Runnable[] active = new Runnable[INITIAL_CAPACITY];
+  private @Nullable Runnable[] spare = new Runnable[INITIAL_CAPACITY];
+  private int size;
+  private boolean armed;
+
+  /**
+   * Create a new queue.
+   * @param wheel the wheel to schedule the queue on
+   * @param action the action that runs each task, must not throw
+   */
+  RunQueue(TimerWheel wheel, Consumer<Runnable> action) {
+    this.wheel = wheel;
+    this.action = action;
+  }
+
+  void add(Runnable task) {
+    boolean arm;
+    synchronized (this) {
+      if (size == active.length) {
+        active = Arrays.copyOf(active, size << 1);
+      }
+      active[size++] = task;
+      arm = !armed;
+      armed = true;
+    }
+    // Scheduled outside the lock as the wheel may need to acquire its own lock
+    if (arm) {
+      wheel.schedule(this, 0);
+    }
+  }
+
+  /**
+   * Run all tasks that were added before the wheel expired this queue.
+   */
+  @Override
+  public void run() {
+    Runnable[] tasks;
+    int count;
+    synchronized (this) {
+      tasks = active;
+      count = size;
+      active = spare;
+      spare = tasks;
+      size = 0;
+    }
+    for (int i = 0; i < count; i++) {
+      Runnable task = tasks[i];
+      tasks[i] = null; // help GC
+      action.accept(task);
+    }
+    boolean rearm;
+    synchronized (this) {
+      // The queue stays armed while draining, so tasks added by the drained tasks are picked up here
+      rearm = size > 0;
+      armed = rearm;
+    }
+    if (rearm) {
+      wheel.schedule(this, 1);
+    }
+  }
+
+  // Each drained task is reported on its own by the consumer
+  @Override
+  protected boolean isMetered() {
+    return false;
+  }
+
+  /**
+   * Discard all pending tasks after the wheel has been cleared.
+   */
+  synchronized void clear() {
+    Arrays.fill(active, 0, size, null);
+    size = 0;
+    armed = false;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker.executor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies a {@link SaturationPolicy} to tasks rejected by a bounded {@link ThreadPoolExecutor}.
+ * @param policy the saturation policy
+ * @param timeoutNanos how long to block for when using {@link SaturationPolicy#BLOCK}
+ */
+record Saturation(SaturationPolicy policy, long timeoutNanos) implements RejectedExecutionHandler {
+  @Override
+  public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+    if (executor.isShutdown()) {
+      throw reject(r, "Executor has been shutdown!");
+    }
+    switch (policy) {
+      case REJECT -> throw reject(r, "Queue is full!");
+      case CALLER_RUNS -> r.run();
+      case DROP_OLDEST -> {
+        if (executor.getQueue().poll() instanceof Discardable dropped) {
+          dropped.discard(new RejectedExecutionException("Dropped to make room for a newer task!"));
+        }
+        executor.execute(r);
+      }
+      case BLOCK -> {
+        // The scheduler thread never blocks as that would stall every other delayed and repeating task
+        long timeout = WheelScheduler.isTicker() ? 0 : timeoutNanos;
+        try {
+          if (!executor.getQueue().offer(r, timeout, TimeUnit.NANOSECONDS)) {
+            throw reject(r, "Timed out waiting for room in the queue!");
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw reject(r, "Interrupted while waiting for room in the queue!");
+        }
+      }
+    }
+  }
+
+  private static RejectedExecutionException reject(Runnable r, String message) {
+    RejectedExecutionException e = new RejectedExecutionException(message);
+    if (r instanceof Completion<?> completion) {
+      completion.discard(e);
+    }
+    return e;
+  }
+}
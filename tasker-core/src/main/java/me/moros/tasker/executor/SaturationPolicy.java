@@ -0,0 +1,48 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker.executor;
+
+/**
+ * Determines what happens when a task is submitted to a bounded async executor whose queue is full.
+ * <br>
+ * Futures of submitted tasks that are rejected or dropped complete exceptionally with a
+ * {@link java.util.concurrent.RejectedExecutionException RejectedExecutionException}.
+ * @see SimpleAsyncExecutor#bounded(int, int, SaturationPolicy)
+ */
+public enum SaturationPolicy {
+  /**
+   * Reject the new task.
+   */
+  REJECT,
+  /**
+   * Run the new task on the submitting thread. Delayed tasks are submitted by the scheduler thread,
+   * so long-running tasks will delay other scheduled tasks.
+   */
+  CALLER_RUNS,
+  /**
+   * Drop the oldest queued task to make room for the new task.
+   */
+  DROP_OLDEST,
+  /**
+   * Block the submitting thread until there is room in the queue, rejecting the new task if the timeout elapses.
+   * Delayed tasks are submitted by the scheduler thread, which never blocks, so they are rejected right away
+   * if the queue is full and repeating tasks skip that period.
+   */
+  BLOCK
+}
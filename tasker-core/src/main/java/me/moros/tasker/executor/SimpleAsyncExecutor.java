@@ -20,15 +20,13 @@
 package me.moros.tasker.executor;
 
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.RunnableFuture;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -36,62 +34,123 @@ import me.moros.tasker.Task;
 import org.jspecify.annotations.Nullable;
 
 /**
- * A simple async executor implementation that delegates to a {@link ScheduledExecutorService} for repeated tasks.
+ * A simple async executor implementation that delegates to an {@link ExecutorService}.
+ * <br>
+ * Delayed and repeated tasks are timed by a timer wheel with millisecond resolution that is advanced by a dedicated
+ * scheduler thread, and dispatched to the executor once they expire.
  */
 public class SimpleAsyncExecutor implements AsyncExecutor {
-  private final ScheduledThreadPoolExecutor scheduler;
+  private final WheelScheduler scheduler;
   private final ExecutorService executor;
 
   public SimpleAsyncExecutor(ExecutorService executor) {
-    var threadFactory = new DaemonThreadFactory("TaskerScheduler");
-    this.scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
-    this.scheduler.setRemoveOnCancelPolicy(true);
     this.executor = Objects.requireNonNull(executor);
+    this.scheduler = new WheelScheduler(executor, new DaemonThreadFactory("TaskerScheduler"));
   }
 
   public SimpleAsyncExecutor() {
     this(Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
   }
 
-  private Executor delayedExecutor(long delay, TimeUnit unit) {
-    return delay <= 0 ? executor : new Delayer(scheduler, executor, delay, unit);
+  /**
+   * Create an async executor that runs each task on a new virtual thread.
+   * <br>
+   * This is better suited for blocking tasks, such as database and file I/O, as concurrency
+   * is not limited by the size of a platform thread pool.
+   * @return the created async executor
+   */
+  public static SimpleAsyncExecutor virtual() {
+    ThreadFactory threadFactory = Thread.ofVirtual().name("TaskerVirtual-", 0).factory();
+    return new SimpleAsyncExecutor(Executors.newThreadPerTaskExecutor(threadFactory));
+  }
+
+  /**
+   * Create an async executor with a fixed amount of threads and a bounded queue.
+   * @param threads the amount of worker threads
+   * @param capacity the maximum amount of queued tasks
+   * @param policy what to do with new tasks when the queue is full
+   * @return the created async executor
+   * @see #queueDepth()
+   */
+  public static SimpleAsyncExecutor bounded(int threads, int capacity, SaturationPolicy policy) {
+    return bounded(threads, capacity, policy, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Create an async executor with a fixed amount of threads and a bounded queue.
+   * @param threads the amount of worker threads
+   * @param capacity the maximum amount of queued tasks
+   * @param policy what to do with new tasks when the queue is full
+   * @param timeout how long to block for when using {@link SaturationPolicy#BLOCK}
+   * @param unit the unit of time for timeout
+   * @return the created async executor
+   * @see #queueDepth()
+   */
+  public static SimpleAsyncExecutor bounded(int threads, int capacity, SaturationPolicy policy, long timeout, TimeUnit unit) {
+    Objects.requireNonNull(policy);
+    if (threads <= 0 || capacity <= 0 || timeout < 0) {
+      throw new IllegalArgumentException();
+    }
+    var handler = new Saturation(policy, unit.toNanos(timeout));
+    var queue = new ArrayBlockingQueue<Runnable>(capacity);
+    return new SimpleAsyncExecutor(new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue, handler));
+  }
+
+  /**
+   * Get the amount of tasks waiting in the executor's queue.
+   * This doesn't include delayed tasks that have not been dispatched yet.
+   * @return the queue depth or -1 if the underlying executor doesn't expose its queue
+   */
+  public int queueDepth() {
+    return executor instanceof ThreadPoolExecutor pool ? pool.getQueue().size() : -1;
   }
 
   @Override
   public <V> CompletableFuture<@Nullable V> submit(Supplier<@Nullable V> task, long delay, TimeUnit unit) {
     Objects.requireNonNull(task);
     checkValid();
-    return CompletableFuture.supplyAsync(task, delayedExecutor(delay, unit));
+    CompletableFuture<@Nullable V> future = new CompletableFuture<>();
+    Completion<V> completion = new Completion<>(task, future);
+    if (delay <= 0) {
+      executor.execute(completion);
+    } else {
+      scheduler.schedule(completion, delay, 0, unit);
+    }
+    return future;
   }
 
   @Override
   public Task repeat(Runnable task, long delay, long period, TimeUnit unit) {
+    return repeat(task, delay, period, unit, RepeatPolicy.CONCURRENT);
+  }
+
+  @Override
+  public Task repeat(Runnable task, long delay, long period, TimeUnit unit, RepeatPolicy policy) {
     Objects.requireNonNull(task);
+    Objects.requireNonNull(policy);
     checkValid();
-    int periodTicks = toTicks(period, unit);
-    var future = (RunnableFuture<?>) scheduler.scheduleAtFixedRate(() -> executor.execute(task), delay, period, unit);
-    return new FutureWrapper(future, periodTicks);
+    if (period <= 0) {
+      throw new IllegalArgumentException("Period must be positive!");
+    }
+    return new TaskWrapper(scheduler.schedule(task, delay, period, unit, policy), toTicks(period, unit));
   }
 
   @Override
   public boolean isValid() {
-    return !executor.isShutdown();
+    return !executor.isShutdown() && !scheduler.isShutdown();
   }
 
   @Override
   public void shutdown() {
-    executor.shutdown();
     scheduler.shutdown();
+    executor.shutdown();
     try {
       if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
         executor.shutdownNow();
       }
-      if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-        scheduler.shutdownNow();
-      }
+      scheduler.awaitTermination(5, TimeUnit.SECONDS);
     } catch (InterruptedException e) {
       executor.shutdownNow();
-      scheduler.shutdownNow();
     }
   }
 
@@ -111,10 +170,4 @@ public class SimpleAsyncExecutor implements AsyncExecutor {
     }
   }
 
-  private record Delayer(ScheduledExecutorService del, Executor ex, long delay, TimeUnit unit) implements Executor {
-    @Override
-    public void execute(Runnable command) {
-      del.schedule(() -> ex.execute(command), delay, unit);
-    }
-  }
 }
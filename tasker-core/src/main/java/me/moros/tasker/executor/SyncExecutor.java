@@ -19,10 +19,14 @@
 
 package me.moros.tasker.executor;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import me.moros.tasker.Task;
@@ -37,6 +41,23 @@ public interface SyncExecutor extends TaskExecutor {
     return submit(task, toTicks(delay, unit));
   }
 
+  @Override
+  default void execute(Runnable command) {
+    runLater(command, 0);
+  }
+
+  /**
+   * Schedule a one-shot task without tracking its result.
+   * <br>
+   * Unlike {@link #submit(Runnable, int)}, no future is created and any exception thrown by the task is reported to
+   * the executor's error handler instead.
+   * @param task the task to schedule
+   * @param ticks the delay before the task is executed in game ticks
+   */
+  default void runLater(Runnable task, int ticks) {
+    submit(task, ticks);
+  }
+
   @Override
   default Task repeat(Runnable task, int periodTicks) {
     return repeat(toConsumer(task), 0, periodTicks);
@@ -94,6 +115,115 @@ public interface SyncExecutor extends TaskExecutor {
    */
   Task repeat(Consumer<? super Task> task, int ticks, int periodTicks);
 
+  /**
+   * Schedule a repeating task that tolerates jitter. Its first execution is moved to the least busy tick within
+   * a single period after the delay so that tasks with the same period don't all run on the same tick.
+   * @param task the task to schedule
+   * @param periodTicks how often to repeat the task in game ticks
+   * @return the scheduled task
+   * @see me.moros.tasker.TimerWheel#scheduleSpread(me.moros.tasker.Expiring, int)
+   */
+  default Task repeatSpread(Runnable task, int periodTicks) {
+    return repeatSpread(toConsumer(task), 0, periodTicks);
+  }
+
+  /**
+   * Schedule a repeating task that tolerates jitter. Its first execution is moved to the least busy tick within
+   * a single period after the delay so that tasks with the same period don't all run on the same tick.
+   * <br>
+   * Executors that can't balance load schedule the task exactly like {@link #repeat(Consumer, int, int)}.
+   * @param task the task to schedule
+   * @param ticks the earliest delay before the first task execution in game ticks
+   * @param periodTicks how often to repeat the task in game ticks
+   * @return the scheduled task
+   * @see me.moros.tasker.TimerWheel#scheduleSpread(me.moros.tasker.Expiring, int)
+   */
+  default Task repeatSpread(Consumer<? super Task> task, int ticks, int periodTicks) {
+    return repeat(task, ticks, periodTicks);
+  }
+
+  /**
+   * Schedule a one-shot task owned by the given key without tracking its result.
+   * @param task the task to schedule
+   * @param ticks the delay before the task is executed in game ticks
+   * @param owner the owner of the task, such as a plugin, player or arena
+   * @throws UnsupportedOperationException if this executor doesn't track owners
+   * @see #cancelAll(Object)
+   */
+  default void runLater(Runnable task, int ticks, Object owner) {
+    throw new UnsupportedOperationException("Owned tasks are not supported!");
+  }
+
+  /**
+   * Schedule a repeating task owned by the given key.
+   * @param task the task to schedule
+   * @param ticks the delay before the first task execution in game ticks
+   * @param periodTicks how often to repeat the task in game ticks
+   * @param owner the owner of the task, such as a plugin, player or arena
+   * @return the scheduled task
+   * @throws UnsupportedOperationException if this executor doesn't track owners
+   * @see #cancelAll(Object)
+   */
+  default Task repeat(Consumer<? super Task> task, int ticks, int periodTicks, Object owner) {
+    throw new UnsupportedOperationException("Owned tasks are not supported!");
+  }
+
+  /**
+   * Cancel all pending tasks owned by the given key. Executors that don't track owners have nothing to cancel.
+   * @param owner the owner of the tasks
+   * @return the amount of cancelled tasks
+   */
+  default int cancelAll(Object owner) {
+    return 0;
+  }
+
+  /**
+   * Schedule multiple tasks with the same delay.
+   * @param tasks the tasks to schedule
+   * @param ticks the delay in game ticks
+   * @param <V> the result type
+   * @return the futures for each task in iteration order
+   */
+  default <V> List<CompletableFuture<@Nullable V>> submitAll(Collection<? extends Supplier<@Nullable V>> tasks, int ticks) {
+    List<CompletableFuture<@Nullable V>> futures = new ArrayList<>(tasks.size());
+    for (Supplier<@Nullable V> task : tasks) {
+      futures.add(submit(task, ticks));
+    }
+    return futures;
+  }
+
+  /**
+   * Schedule multiple repeating tasks with the same delay and period.
+   * @param tasks the tasks to schedule
+   * @param ticks the delay before the first task execution in game ticks
+   * @param periodTicks how often to repeat the tasks in game ticks
+   * @return the scheduled tasks in iteration order
+   */
+  default List<Task> repeatAll(Collection<? extends Consumer<? super Task>> tasks, int ticks, int periodTicks) {
+    List<Task> result = new ArrayList<>(tasks.size());
+    for (Consumer<? super Task> task : tasks) {
+      result.add(repeat(task, ticks, periodTicks));
+    }
+    return result;
+  }
+
+  /**
+   * Apply a function on this executor to the result of a future that completes on another thread.
+   * <br>
+   * The function is applied during the first tick after the future completes. If the future completes
+   * exceptionally, the returned future completes exceptionally with the same exception.
+   * @param source the future to wait for
+   * @param stage the function to apply
+   * @param <T> the type of the source result
+   * @param <R> the type of the function result
+   * @return a future that completes with the function result
+   */
+  default <T, R> CompletableFuture<@Nullable R> deliver(CompletableFuture<T> source, Function<? super T, ? extends R> stage) {
+    Objects.requireNonNull(source);
+    Objects.requireNonNull(stage);
+    return source.thenApplyAsync(stage, this);
+  }
+
   /**
    * Clear all scheduled tasks in this executor without shutting down.
    */
@@ -101,6 +231,6 @@ public interface SyncExecutor extends TaskExecutor {
 
   private Consumer<? super Task> toConsumer(Runnable task) {
     Objects.requireNonNull(task);
-    return t -> task.run();
+    return new Adapters.RunnableConsumer(task);
   }
 }
@@ -138,10 +138,7 @@ public interface TaskExecutor extends TickAdapter, Executor {
 
   private Supplier<?> toSupplier(Runnable task) {
     Objects.requireNonNull(task);
-    return () -> {
-      task.run();
-      return null;
-    };
+    return new Adapters.RunnableSupplier(task);
   }
 
   /**
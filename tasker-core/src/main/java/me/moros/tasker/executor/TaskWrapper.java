@@ -16,25 +16,25 @@
  * You should have received a copy of the GNU General Public License
  * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
  */
-
 package me.moros.tasker.executor;
 
-import java.util.concurrent.RunnableFuture;
-
 import me.moros.tasker.Task;
 
-final class FutureWrapper implements Task {
-  private final RunnableFuture<?> future;
+/**
+ * A task handle that reports its repeat period in game ticks while delegating cancellation.
+ */
+final class TaskWrapper implements Task {
+  private final Task delegate;
   private final int repeat;
 
-  FutureWrapper(RunnableFuture<?> future, int repeat) {
-    this.future = future;
+  TaskWrapper(Task delegate, int repeat) {
+    this.delegate = delegate;
     this.repeat = repeat;
   }
 
   @Override
   public void run() {
-    future.run();
+    delegate.run();
   }
 
   @Override
@@ -44,7 +44,7 @@ final class FutureWrapper implements Task {
 
   @Override
   public void cancel() {
-    future.cancel(false);
+    delegate.cancel();
   }
 
   @Override
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.moros.tasker.executor;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import me.moros.tasker.Expiring;
+import me.moros.tasker.Task;
+import me.moros.tasker.TaskErrorHandler;
+import me.moros.tasker.TimerWheel;
+import me.moros.tasker.WheelSpec;
+
+/**
+ * A delay scheduler backed by a {@link TimerWheel} that is advanced in wall-clock time by a dedicated ticker thread.
+ * Expired tasks are dispatched directly to an executor.
+ */
+final class WheelScheduler {
+  private static final long RESOLUTION = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final int MAX_PARK_TICKS = 1000;
+  private static final ThreadLocal<Boolean> TICKER = ThreadLocal.withInitial(() -> false);
+
+  private final TimerWheel wheel;
+  private final Executor executor;
+  private final Thread ticker;
+  private final long start;
+  private volatile boolean running;
+  // The amount of ticks the wheel has advanced, only written by the ticker thread
+  private volatile long ticked;
+  // The tick the ticker thread parks until, or Long.MAX_VALUE while it's deciding how long to park so that
+  // any concurrent submission unparks it
+  private volatile long wakeup = Long.MAX_VALUE;
+
+  WheelScheduler(Executor executor, ThreadFactory threadFactory) {
+    this.wheel = TimerWheel.hierarchical(WheelSpec.powerOfTwo());
+    // Failures can only come from dispatching, in which case repeating tasks are stopped
+    this.wheel.errorHandler(TaskErrorHandler.uncaught(TaskErrorHandler.Policy.CANCEL));
+    this.executor = executor;
+    this.ticker = threadFactory.newThread(this::tick);
+    this.start = System.nanoTime();
+    this.running = true;
+    this.ticker.start();
+  }
+
+  /**
+   * Schedule a task to be dispatched to the executor after the given delay.
+   * @param task the task to dispatch
+   * @param delay the delay before the first dispatch
+   * @param period the period between dispatches or 0 to dispatch only once
+   * @param unit the unit of time for delay and period
+   * @return the scheduled task
+   */
+  Task schedule(Runnable task, long delay, long period, TimeUnit unit) {
+    return schedule(task, delay, period, unit, RepeatPolicy.CONCURRENT);
+  }
+
+  /**
+   * Schedule a task to be dispatched to the executor after the given delay.
+   * @param task the task to dispatch
+   * @param delay the delay before the first dispatch
+   * @param period the period between dispatches or 0 to dispatch only once
+   * @param unit the unit of time for delay and period
+   * @param policy how to handle executions that take longer than the period
+   * @return the scheduled task
+   */
+  Task schedule(Runnable task, long delay, long period, TimeUnit unit, RepeatPolicy policy) {
+    Objects.requireNonNull(task);
+    Objects.requireNonNull(policy);
+    if (period < 0) {
+      throw new IllegalArgumentException();
+    }
+    int repeat = period == 0 ? 0 : Math.max(1, toTicks(unit.toNanos(period)));
+    // Add a tick because the current tick is already partially elapsed, so tasks are never dispatched early
+    int ticks = toTicks(unit.toNanos(Math.max(0, delay))) + 1;
+    if (repeat == 0 || policy == RepeatPolicy.CONCURRENT) {
+      return enqueue(new Dispatch(executor, task, repeat), ticks);
+    }
+    Guarded guarded = new Guarded(task, policy, repeat);
+    enqueue(guarded.trigger, ticks);
+    return guarded;
+  }
+
+  private <T extends Expiring> T enqueue(T task, int ticks) {
+    long now = (System.nanoTime() - start) / RESOLUTION;
+    // The wheel lags behind while the ticker is parked, so the delay is extended to be relative to the current time
+    wheel.schedule(task, (int) Math.min(ticks + Math.max(0, now - ticked), Integer.MAX_VALUE - 1));
+    // Wake up the ticker if it's parked past the point where this task is due
+    if (now + ticks < wakeup) {
+      LockSupport.unpark(ticker);
+    }
+    return task;
+  }
+
+  boolean isShutdown() {
+    return !running;
+  }
+
+  void shutdown() {
+    running = false;
+    LockSupport.unpark(ticker);
+  }
+
+  boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return ticker.join(Duration.ofNanos(unit.toNanos(timeout)));
+  }
+
+  /**
+   * Check whether the current thread is the ticker thread of a scheduler.
+   * @return true if called by a ticker thread, false otherwise
+   */
+  static boolean isTicker() {
+    return TICKER.get();
+  }
+
+  private static int toTicks(long nanos) {
+    return (int) Math.min(Math.ceilDiv(nanos, RESOLUTION), Integer.MAX_VALUE - 1);
+  }
+
+  private void tick() {
+    TICKER.set(true);
+    while (running) {
+      long elapsed = (System.nanoTime() - start) / RESOLUTION;
+      if (ticked < elapsed) {
+        // Catch up in a single pass, skipping over any idle milliseconds
+        wheel.advanceTo(wheel.currentTick() + (int) (elapsed - ticked));
+        ticked = elapsed;
+      }
+      // Park until the wheel has work instead of waking up every tick
+      wakeup = Long.MAX_VALUE;
+      long target = ticked + Math.min(wheel.ticksUntilNextExpiry(), MAX_PARK_TICKS);
+      wakeup = target;
+      LockSupport.parkNanos(start + target * RESOLUTION - System.nanoTime());
+    }
+    wheel.shutdown(false);
+  }
+
+  private static final class Dispatch extends Expiring {
+    private final Executor executor;
+    private final Runnable task;
+    private final int repeat;
+
+    private Dispatch(Executor executor, Runnable task, int repeat) {
+      this.executor = executor;
+      this.task = task;
+      this.repeat = repeat;
+    }
+
+    @Override
+    public void run() {
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        // The executor is saturated, submitted futures are failed and repeating tasks skip this period
+        if (task instanceof Discardable discardable) {
+          discardable.discard(e);
+        }
+      }
+    }
+
+    @Override
+    public int repeat() {
+      return repeat;
+    }
+  }
+
+  /**
+   * A repeating task that tracks whether it is in flight to avoid overlapping executions.
+   */
+  private final class Guarded implements Task, Discardable {
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int RUNNING_PENDING = 2;
+
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private final Runnable task;
+    private final RepeatPolicy policy;
+    private final int period;
+    private final Trigger trigger;
+    private volatile boolean cancelled;
+
+    private Guarded(Runnable task, RepeatPolicy policy, int period) {
+      this.task = task;
+      this.policy = policy;
+      this.period = period;
+      // Fixed delay tasks are rescheduled manually once each execution completes
+      this.trigger = new Trigger(this, policy == RepeatPolicy.FIXED_DELAY ? 0 : period);
+    }
+
+    /**
+     * Called by the ticker thread when the task is due.
+     */
+    private void dispatch() {
+      int current;
+      do {
+        current = state.get();
+        if (current == RUNNING_PENDING || (current == RUNNING && policy != RepeatPolicy.COALESCE)) {
+          return;
+        }
+      } while (!state.compareAndSet(current, current == IDLE ? RUNNING : RUNNING_PENDING));
+      if (current == IDLE) {
+        try {
+          executor.execute(this);
+        } catch (RejectedExecutionException e) {
+          discard(e); // The executor is saturated, skip this period
+        }
+      }
+    }
+
+    /**
+     * Called by a worker thread to execute the task.
+     */
+    @Override
+    public void run() {
+      try {
+        do {
+          task.run();
+          // A coalesced run is pending if the flag was raised while running
+        } while (!state.compareAndSet(RUNNING, IDLE) && !cancelled && state.compareAndSet(RUNNING_PENDING, RUNNING));
+      } catch (Throwable t) {
+        state.set(IDLE);
+        throw t;
+      } finally {
+        rescheduleFixedDelay();
+      }
+    }
+
+    /**
+     * Called when a dispatch was rejected or dropped from the queue before running.
+     */
+    @Override
+    public void discard(Exception cause) {
+      state.set(IDLE);
+      rescheduleFixedDelay();
+    }
+
+    private void rescheduleFixedDelay() {
+      if (policy == RepeatPolicy.FIXED_DELAY && !cancelled) {
+        enqueue(trigger, period);
+        if (cancelled) { // Cancelled while rescheduling
+          trigger.cancel();
+        }
+      }
+    }
+
+    @Override
+    public int repeat() {
+      return period;
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      trigger.cancel();
+    }
+  }
+
+  private static final class Trigger extends Expiring {
+    private final Guarded guarded;
+    private final int repeat;
+
+    private Trigger(Guarded guarded, int repeat) {
+      this.guarded = guarded;
+      this.repeat = repeat;
+    }
+
+    @Override
+    public void run() {
+      guarded.dispatch();
+    }
+
+    @Override
+    public int repeat() {
+      return repeat;
+    }
+  }
+}
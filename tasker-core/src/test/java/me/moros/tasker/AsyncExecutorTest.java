@@ -0,0 +1,210 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.moros.tasker.executor.AsyncExecutor;
+import me.moros.tasker.executor.RepeatPolicy;
+import me.moros.tasker.executor.SaturationPolicy;
+import me.moros.tasker.executor.SimpleAsyncExecutor;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncExecutorTest {
+  @Test
+  void testVirtual() throws Exception {
+    AsyncExecutor executor = SimpleAsyncExecutor.virtual();
+    CompletableFuture<Boolean> future = executor.submit(() -> Thread.currentThread().isVirtual(), 10, TimeUnit.MILLISECONDS);
+    assertTrue(future.get(1, TimeUnit.SECONDS));
+    CountDownLatch latch = new CountDownLatch(3);
+    Task task = executor.repeat(latch::countDown, 0, 5, TimeUnit.MILLISECONDS);
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+    task.cancel();
+    executor.shutdown();
+    assertFalse(executor.isValid());
+  }
+
+  @Test
+  void testDelay() throws Exception {
+    AsyncExecutor executor = new SimpleAsyncExecutor();
+    long start = System.nanoTime();
+    CompletableFuture<Long> future = executor.submit(System::nanoTime, 30, TimeUnit.MILLISECONDS);
+    assertTrue(future.get(1, TimeUnit.SECONDS) - start >= TimeUnit.MILLISECONDS.toNanos(30));
+    // The ticker parks until the distant task is due, a shorter one must wake it up without expiring early
+    long scheduled = System.nanoTime();
+    CompletableFuture<Long> distant = executor.submit(System::nanoTime, 500, TimeUnit.MILLISECONDS);
+    Thread.sleep(100);
+    long submitted = System.nanoTime();
+    long elapsed = executor.submit(System::nanoTime, 20, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS) - submitted;
+    assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(20) && elapsed < TimeUnit.MILLISECONDS.toNanos(300));
+    assertTrue(distant.get(1, TimeUnit.SECONDS) - scheduled >= TimeUnit.MILLISECONDS.toNanos(500));
+    executor.shutdown();
+
+    // A single worker runs dispatches in order, so a later probe observes every run dispatched before it
+    AsyncExecutor sequential = new SimpleAsyncExecutor(Executors.newSingleThreadExecutor());
+    AtomicInteger counter = new AtomicInteger(0);
+    CountDownLatch runs = new CountDownLatch(10);
+    Task task = sequential.repeat(() -> {
+      counter.incrementAndGet();
+      runs.countDown();
+    }, 10, 10, TimeUnit.MILLISECONDS);
+    assertTrue(runs.await(1, TimeUnit.SECONDS));
+    task.cancel();
+    int count = sequential.submit(counter::get, 10, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS);
+    assertEquals(count, (int) sequential.submit(counter::get, 50, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS));
+    sequential.shutdown();
+  }
+
+  @Test
+  void testShortDelays() throws Exception {
+    AsyncExecutor executor = new SimpleAsyncExecutor();
+    long worst = 0;
+    // Submissions racing with the ticker deciding how long to park must still wake it up
+    for (int i = 0; i < 1000; i++) {
+      long submitted = System.nanoTime();
+      long completed = executor.submit(System::nanoTime, 1, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS);
+      worst = Math.max(worst, completed - submitted);
+    }
+    assertTrue(worst < TimeUnit.MILLISECONDS.toNanos(200), "Worst latency: " + worst);
+    executor.shutdown();
+  }
+
+  private static int maxConcurrency(AsyncExecutor executor, RepeatPolicy policy) throws InterruptedException {
+    AtomicInteger inFlight = new AtomicInteger(0);
+    AtomicInteger max = new AtomicInteger(0);
+    Task task = executor.repeat(() -> {
+      max.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(30);
+      } catch (InterruptedException ignore) {
+      }
+      inFlight.decrementAndGet();
+    }, 0, 5, TimeUnit.MILLISECONDS, policy);
+    Thread.sleep(200);
+    task.cancel();
+    return max.get();
+  }
+
+  @Test
+  void testRepeatPolicy() throws InterruptedException {
+    AsyncExecutor executor = SimpleAsyncExecutor.virtual();
+    assertTrue(maxConcurrency(executor, RepeatPolicy.CONCURRENT) > 1);
+    assertEquals(1, maxConcurrency(executor, RepeatPolicy.SKIP_IF_RUNNING));
+    assertEquals(1, maxConcurrency(executor, RepeatPolicy.COALESCE));
+    assertEquals(1, maxConcurrency(executor, RepeatPolicy.FIXED_DELAY));
+    executor.shutdown();
+  }
+
+  private static void occupy(AsyncExecutor executor, CountDownLatch release) throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    executor.execute(() -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ignore) {
+      }
+    });
+    assertTrue(started.await(1, TimeUnit.SECONDS));
+  }
+
+  private static void awaitQueued(SimpleAsyncExecutor executor) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (executor.queueDepth() == 0) {
+      assertTrue(System.nanoTime() < deadline, "Nothing was queued");
+      Thread.sleep(1);
+    }
+  }
+
+  @Test
+  void testBounded() throws Exception {
+    SimpleAsyncExecutor executor = SimpleAsyncExecutor.bounded(1, 1, SaturationPolicy.DROP_OLDEST);
+    CountDownLatch latch = new CountDownLatch(1);
+    occupy(executor, latch);
+    CompletableFuture<Integer> dropped = executor.submit(() -> 1);
+    CompletableFuture<Integer> kept = executor.submit(() -> 2);
+    assertEquals(1, executor.queueDepth());
+    assertTrue(dropped.isCompletedExceptionally());
+    latch.countDown();
+    assertEquals(2, (int) kept.get(1, TimeUnit.SECONDS));
+    executor.shutdown();
+
+    SimpleAsyncExecutor rejecting = SimpleAsyncExecutor.bounded(1, 1, SaturationPolicy.REJECT);
+    CountDownLatch blocker = new CountDownLatch(1);
+    occupy(rejecting, blocker);
+    rejecting.submit(() -> 1);
+    assertThrows(RejectedExecutionException.class, () -> rejecting.submit(() -> 2));
+    blocker.countDown();
+    rejecting.shutdown();
+
+    // Dropping a queued repeating run must not stop future runs
+    for (RepeatPolicy policy : List.of(RepeatPolicy.SKIP_IF_RUNNING, RepeatPolicy.COALESCE, RepeatPolicy.FIXED_DELAY)) {
+      SimpleAsyncExecutor dropping = SimpleAsyncExecutor.bounded(1, 1, SaturationPolicy.DROP_OLDEST);
+      CountDownLatch gate = new CountDownLatch(1);
+      occupy(dropping, gate);
+      CountDownLatch runs = new CountDownLatch(1);
+      Task task = dropping.repeat(runs::countDown, 0, 10, TimeUnit.MILLISECONDS, policy);
+      awaitQueued(dropping);
+      dropping.execute(() -> {
+      });
+      gate.countDown();
+      assertTrue(runs.await(1, TimeUnit.SECONDS), policy + " stopped repeating");
+      task.cancel();
+      dropping.shutdown();
+    }
+
+    // The scheduler thread rejects delayed tasks instead of blocking while the queue is full
+    SimpleAsyncExecutor blocking = SimpleAsyncExecutor.bounded(1, 1, SaturationPolicy.BLOCK);
+    CountDownLatch busy = new CountDownLatch(1);
+    occupy(blocking, busy);
+    blocking.execute(() -> {
+    });
+    CompletableFuture<Integer> delayed = blocking.submit(() -> 1, 10, TimeUnit.MILLISECONDS);
+    assertThrows(ExecutionException.class, () -> delayed.get(1, TimeUnit.SECONDS));
+    busy.countDown();
+    blocking.shutdown();
+  }
+
+  @Test
+  void testRejectedDispatch() throws Exception {
+    // Delayed futures fail when dispatching is rejected, even without a saturation policy
+    var pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+    SimpleAsyncExecutor executor = new SimpleAsyncExecutor(pool);
+    CountDownLatch busy = new CountDownLatch(1);
+    occupy(executor, busy);
+    executor.execute(() -> {
+    });
+    CompletableFuture<Integer> delayed = executor.submit(() -> 1, 10, TimeUnit.MILLISECONDS);
+    ExecutionException e = assertThrows(ExecutionException.class, () -> delayed.get(1, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof RejectedExecutionException);
+    busy.countDown();
+    executor.shutdown();
+  }
+}
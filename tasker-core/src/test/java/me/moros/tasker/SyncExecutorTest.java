@@ -19,9 +19,15 @@
 
 package me.moros.tasker;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+import me.moros.tasker.executor.CompositeExecutor;
+import me.moros.tasker.executor.SimpleAsyncExecutor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -95,6 +101,146 @@ class SyncExecutorTest {
     assertEquals(initial + TICKS, counter.get());
   }
 
+  @Test
+  void testOffThreadSubmit() throws InterruptedException {
+    syncExecutor.tick();
+    AtomicInteger counter = new AtomicInteger(0);
+    Thread thread = new Thread(() -> {
+      syncExecutor.submit(counter::incrementAndGet, 1);
+      syncExecutor.repeat(counter::incrementAndGet, 1, 1).cancel();
+    });
+    thread.start();
+    thread.join();
+    assertEquals(0, counter.get());
+    syncExecutor.tick();
+    assertEquals(1, counter.get());
+    syncExecutor.tick();
+    assertEquals(1, counter.get());
+  }
+
+  @Test
+  void testBulk() {
+    AtomicInteger counter = new AtomicInteger(0);
+    List<Supplier<Integer>> suppliers = List.of(counter::incrementAndGet, counter::incrementAndGet);
+    List<CompletableFuture<Integer>> futures = syncExecutor.submitAll(suppliers, 2);
+    List<Task> tasks = syncExecutor.repeatAll(List.of(t -> counter.incrementAndGet()), 2, 2);
+    for (int i = 0; i < 4; i++) {
+      syncExecutor.tick();
+    }
+    assertTrue(futures.stream().allMatch(CompletableFuture::isDone));
+    assertEquals(4, counter.get());
+    tasks.forEach(Task::cancel);
+  }
+
+  @Test
+  void testExecute() {
+    AtomicInteger counter = new AtomicInteger(0);
+    AtomicInteger errors = new AtomicInteger(0);
+    syncExecutor.errorHandler((task, error) -> {
+      errors.incrementAndGet();
+      return TaskErrorHandler.Policy.KEEP;
+    });
+    syncExecutor.execute(counter::incrementAndGet);
+    syncExecutor.execute(() -> {
+      throw new IllegalStateException();
+    });
+    syncExecutor.runLater(counter::incrementAndGet, 2);
+    syncExecutor.tick();
+    assertEquals(1, counter.get());
+    assertEquals(1, errors.get());
+    syncExecutor.tick();
+    syncExecutor.tick();
+    assertEquals(2, counter.get());
+  }
+
+  @Test
+  void testNextTick() {
+    List<Integer> order = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      int value = i;
+      syncExecutor.execute(() -> order.add(value));
+    }
+    syncExecutor.execute(() -> syncExecutor.execute(() -> order.add(-1)));
+    syncExecutor.tick();
+    assertEquals(100, order.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, (int) order.get(i));
+    }
+    syncExecutor.tick();
+    assertEquals(-1, (int) order.get(100));
+    CompletableFuture<Integer> future = syncExecutor.submit(() -> syncExecutor.currentTick(), 0);
+    syncExecutor.tick();
+    assertEquals(3, (int) future.join());
+  }
+
+  @Test
+  void testProfilerLabels() {
+    TaskProfiler profiler = new TaskProfiler(5, Long.MAX_VALUE, (label, nanos) -> {
+    });
+    syncExecutor.metrics(profiler);
+    Task task = syncExecutor.repeat(Labeled.runnable("repeating", () -> {
+    }), 1);
+    syncExecutor.submit(Labeled.runnable("submitted", () -> {
+    }), 1);
+    syncExecutor.submit(() -> {
+    });
+    syncExecutor.tick();
+    syncExecutor.tick();
+    task.cancel();
+    List<String> labels = profiler.top(10).stream().map(TaskProfile::label).toList();
+    assertTrue(labels.contains("repeating"));
+    assertTrue(labels.contains("submitted"));
+    assertTrue(labels.contains(SyncExecutorTest.class.getName() + " (lambda)"));
+    assertTrue(labels.stream().noneMatch(label -> label.startsWith("me.moros.tasker.executor")), labels.toString());
+  }
+
+  @Test
+  void testQueuedProfiles() {
+    TaskProfiler profiler = new TaskProfiler(5);
+    syncExecutor.metrics(profiler);
+    for (int i = 0; i < 3; i++) {
+      syncExecutor.execute(Labeled.runnable("queued", () -> {
+      }));
+    }
+    syncExecutor.deliver(CompletableFuture.completedFuture(1), v -> v);
+    syncExecutor.tick();
+    // Only the queued tasks are reported, not the queues that run them
+    List<TaskProfile> profiles = profiler.top(10);
+    assertEquals(2, profiles.size(), profiles.toString());
+    assertEquals(3, profiles.stream()
+      .filter(p -> p.label().equals("queued")).findFirst().orElseThrow().count());
+    assertTrue(profiles.stream().anyMatch(p -> p.label().equals(SyncExecutorTest.class.getName() + " (lambda)")));
+  }
+
+  @Test
+  void testDeliver() throws Exception {
+    syncExecutor.tick();
+    syncExecutor.deliveryLimit(2);
+    List<CompletableFuture<Integer>> futures = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      futures.add(syncExecutor.deliver(CompletableFuture.completedFuture(i), v -> v * 2));
+    }
+    CompletableFuture<Integer> failed = syncExecutor.deliver(CompletableFuture.failedFuture(new IllegalStateException()), v -> 0);
+    syncExecutor.tick();
+    assertEquals(2, futures.stream().filter(CompletableFuture::isDone).count());
+    for (int i = 0; i < 3; i++) {
+      syncExecutor.tick();
+    }
+    assertTrue(futures.stream().allMatch(CompletableFuture::isDone));
+    assertTrue(failed.isCompletedExceptionally());
+    assertEquals(8, (int) futures.get(4).join());
+
+    CompositeExecutor composite = CompositeExecutor.of(syncExecutor, SimpleAsyncExecutor.virtual());
+    Thread main = Thread.currentThread();
+    CompletableFuture<Boolean> result = composite.pipeline(() -> Thread.currentThread() != main, v -> v && Thread.currentThread() == main);
+    while (!result.isDone()) {
+      Thread.sleep(1);
+      syncExecutor.tick();
+    }
+    assertTrue(result.join());
+    composite.async().shutdown();
+  }
+
   @AfterEach
   void cleanup() {
     syncExecutor.shutdown();
@@ -0,0 +1,533 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+  private static int linkedTasks(AbstractTimerWheel wheel) {
+    int sum = 0;
+    for (int i = 0; i < wheel.bucketCount(); i++) {
+      sum += wheel.bucket(i).size();
+    }
+    return sum;
+  }
+
+  @Test
+  void testCancelOffThread() throws InterruptedException {
+    TimerWheel wheel = TimerWheel.hierarchical();
+    AtomicInteger counter = new AtomicInteger(0);
+    Task task = wheel.schedule(t -> counter.incrementAndGet(), 5, 0);
+    Thread thread = new Thread(task::cancel);
+    thread.start();
+    thread.join();
+    for (int i = 0; i < 10; i++) {
+      wheel.advance();
+    }
+    assertEquals(0, counter.get());
+  }
+
+  @Test
+  void testSelfCancelRepeating() {
+    TimerWheel wheel = TimerWheel.hierarchical();
+    AtomicInteger counter = new AtomicInteger(0);
+    wheel.schedule(t -> {
+      if (counter.incrementAndGet() >= 3) {
+        t.cancel();
+      }
+    }, 1, 1);
+    for (int i = 0; i < 10; i++) {
+      wheel.advance();
+    }
+    assertEquals(3, counter.get());
+  }
+
+  private static void assertExactExpiry(TimerWheel wheel, int maxDelay) {
+    SplittableRandom random = new SplittableRandom(42);
+    AtomicInteger counter = new AtomicInteger(0);
+    int tasks = 0;
+    for (int i = 0; i < 2 * maxDelay; i++) {
+      if (random.nextInt(10) == 0) {
+        int expected = wheel.currentTick() + random.nextInt(1, maxDelay + 1);
+        wheel.schedule(t -> {
+          assertEquals(expected, wheel.currentTick());
+          counter.incrementAndGet();
+        }, expected - wheel.currentTick(), 0);
+        tasks++;
+      }
+      wheel.advance();
+    }
+    for (int i = 0; i < maxDelay; i++) {
+      wheel.advance();
+    }
+    assertEquals(tasks, counter.get());
+  }
+
+  @Test
+  void testExactExpiry() {
+    assertExactExpiry(TimerWheel.hierarchical(), 200_000);
+    assertExactExpiry(TimerWheel.hierarchical(WheelSpec.powerOfTwo()), 300_000);
+    assertExactExpiry(TimerWheel.hierarchical(WheelSpec.powerOfTwo(2, 3, 2)), 1 << 7);
+    WheelSpec spec = WheelSpec.of(5, 3, 7);
+    assertExactExpiry(TimerWheel.hierarchical(spec), spec.horizon());
+  }
+
+  @Test
+  void testTickWrap() {
+    for (WheelSpec spec : List.of(WheelSpec.defaults(), WheelSpec.powerOfTwo(), WheelSpec.of(5, 3, 7))) {
+      TimerWheel wheel = TimerWheel.hierarchical(spec);
+      int maxDelay = Math.min(spec.horizon() - 1, 100_000);
+      wheel.advanceTo(Integer.MAX_VALUE - maxDelay);
+      assertExactExpiry(wheel, maxDelay);
+    }
+  }
+
+  @Test
+  void testOverflow() {
+    assertExactExpiry(TimerWheel.hierarchical(WheelSpec.of(4, 4)), 500);
+    // Overflowing tasks must stay ordered when their expiring tick wraps around
+    TimerWheel wrapping = TimerWheel.hierarchical(WheelSpec.of(4, 4));
+    wrapping.advanceTo(Integer.MAX_VALUE - 250);
+    assertExactExpiry(wrapping, 500);
+    TimerWheel wheel = TimerWheel.hierarchical(WheelSpec.of(4, 4));
+    AtomicInteger counter = new AtomicInteger(0);
+    List<Task> tasks = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      tasks.add(wheel.schedule(t -> counter.incrementAndGet(), 100 + i, 0));
+    }
+    tasks.subList(0, 50).forEach(Task::cancel);
+    for (int i = 0; i < 250; i++) {
+      wheel.advance();
+    }
+    assertEquals(50, counter.get());
+  }
+
+  @Test
+  void testAdvanceTo() {
+    List<TimerWheel> wheels = List.of(TimerWheel.hierarchical(), TimerWheel.hierarchical(WheelSpec.powerOfTwo()),
+      TimerWheel.hierarchical(WheelSpec.of(4, 4)), TimerWheel.simple(64));
+    for (TimerWheel wheel : wheels) {
+      AtomicInteger counter = new AtomicInteger(0);
+      AtomicInteger misses = new AtomicInteger(0);
+      for (int i = 0; i < 100; i++) {
+        int expected = 1 + i * 37;
+        wheel.schedule(t -> {
+          counter.incrementAndGet();
+          if (wheel.currentTick() != expected) {
+            misses.incrementAndGet();
+          }
+          // Tasks scheduled while catching up must not be skipped either
+          int chained = wheel.currentTick() + 3;
+          wheel.schedule(c -> {
+            if (wheel.currentTick() != chained) {
+              misses.incrementAndGet();
+            }
+          }, 3, 0);
+        }, expected, 0);
+      }
+      int[] repeats = {0};
+      wheel.schedule(t -> repeats[0]++, 5, 500);
+      wheel.advanceTo(1000);
+      assertEquals(1000, wheel.currentTick());
+      wheel.advanceTo(900);
+      assertEquals(1000, wheel.currentTick());
+      wheel.advanceTo(4000);
+      assertEquals(100, counter.get());
+      assertEquals(0, misses.get());
+      assertEquals(8, repeats[0]);
+      wheel.shutdown(false);
+    }
+  }
+
+  @Test
+  void testNextExpiry() {
+    for (TimerWheel wheel : List.of(TimerWheel.hierarchical(), TimerWheel.simple(128))) {
+      assertEquals(Integer.MAX_VALUE, wheel.ticksUntilNextExpiry());
+      AtomicInteger counter = new AtomicInteger(0);
+      wheel.schedule(t -> counter.incrementAndGet(), 100, 0);
+      int ticks = wheel.ticksUntilNextExpiry();
+      assertTrue(ticks > 0 && ticks <= 100);
+      wheel.schedule(t -> {
+      }, 7, 0);
+      assertEquals(7, wheel.ticksUntilNextExpiry());
+      wheel.advanceTo(7);
+      assertTrue(wheel.ticksUntilNextExpiry() <= 93);
+      wheel.advanceTo(100);
+      assertEquals(1, counter.get());
+      assertEquals(Integer.MAX_VALUE, wheel.ticksUntilNextExpiry());
+      wheel.schedule(t -> {
+      }, 50, 0);
+      wheel.shutdown(false);
+      assertEquals(Integer.MAX_VALUE, wheel.ticksUntilNextExpiry());
+    }
+  }
+
+  @Test
+  void testSimple() {
+    assertExactExpiry(TimerWheel.simple(64), 64);
+    assertExactExpiry(TimerWheel.simple(100), 1000);
+    assertExactExpiry(TimerWheel.simple(1), 20);
+    // A delay equal to the capacity must not land in the bucket that is currently expiring
+    TimerWheel wheel = TimerWheel.simple(64);
+    List<Integer> repeats = new ArrayList<>();
+    List<Integer> once = new ArrayList<>();
+    wheel.schedule(t -> {
+      wheel.schedule(r -> repeats.add(wheel.currentTick()), 64, 64);
+      wheel.schedule(o -> once.add(wheel.currentTick()), 64, 0);
+    }, 1, 0);
+    for (int i = 0; i < 129; i++) {
+      wheel.advance();
+    }
+    assertEquals(List.of(65, 129), repeats);
+    assertEquals(List.of(65), once);
+  }
+
+  @Test
+  void testBudget() {
+    TimerWheel wheel = TimerWheel.hierarchical();
+    AtomicInteger counter = new AtomicInteger(0);
+    for (int i = 0; i < 10; i++) {
+      wheel.schedule(t -> {
+        counter.incrementAndGet();
+        try {
+          Thread.sleep(25);
+        } catch (InterruptedException ignore) {
+        }
+      }, 1, 0);
+    }
+    wheel.advance(1_000_000);
+    assertEquals(1, counter.get());
+    assertEquals(new BudgetStats(9, 0, 9), wheel.budgetStats());
+    wheel.advance();
+    assertEquals(10, counter.get());
+    assertEquals(new BudgetStats(9, 9, 0), wheel.budgetStats());
+  }
+
+  @Test
+  void testBudgetProgress() {
+    TimerWheel wheel = TimerWheel.hierarchical();
+    assertThrows(IllegalArgumentException.class, () -> wheel.advance(0));
+    assertThrows(IllegalArgumentException.class, () -> wheel.advance(-1));
+    List<Integer> ran = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      int id = i;
+      wheel.schedule(t -> ran.add(id), 1, 0);
+    }
+    for (int i = 0; i < 10; i++) {
+      wheel.advance(1);
+    }
+    // At least one task runs per tick even though the budget is spent immediately, oldest first
+    assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), ran);
+    assertEquals(0, wheel.budgetStats().backlog());
+  }
+
+  @Test
+  void testWheelSpec() {
+    WheelSpec spec = WheelSpec.of(60, 40, 30);
+    assertEquals(3, spec.levels());
+    assertEquals(2400, spec.resolution(2));
+    assertEquals(72_000, spec.horizon());
+    assertFalse(spec.isPowerOfTwo());
+    assertTrue(WheelSpec.powerOfTwo(4, 4).isPowerOfTwo());
+    assertEquals(WheelSpec.of(16, 16), WheelSpec.powerOfTwo(4, 4));
+    assertThrows(IllegalArgumentException.class, WheelSpec::of);
+    assertThrows(IllegalArgumentException.class, () -> WheelSpec.of(60, 1));
+    assertThrows(IllegalArgumentException.class, () -> WheelSpec.powerOfTwo(16, 16));
+  }
+
+  @Test
+  void testCascade() {
+    TimerWheel wheel = TimerWheel.hierarchical();
+    AtomicInteger counter = new AtomicInteger(0);
+    for (int i = 0; i < 1000; i++) {
+      wheel.schedule(t -> counter.incrementAndGet(), 2400 + i * 97, 0);
+    }
+    for (int i = 0; i < 200_000; i++) {
+      wheel.advance();
+    }
+    assertEquals(1000, counter.get());
+  }
+
+  @Test
+  void testCompaction() {
+    AbstractTimerWheel wheel = (AbstractTimerWheel) TimerWheel.hierarchical();
+    List<Task> tasks = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      tasks.add(wheel.schedule(t -> fail("Cancelled task executed"), 100_000 + i * 100, 0));
+    }
+    assertEquals(1000, linkedTasks(wheel));
+    tasks.forEach(Task::cancel);
+    for (int i = 0; i < 10; i++) {
+      wheel.advance();
+    }
+    assertEquals(0, linkedTasks(wheel));
+  }
+
+  @Test
+  void testScheduleAll() throws InterruptedException {
+    TimerWheel wheel = TimerWheel.hierarchical(WheelSpec.of(4, 4));
+    wheel.advance();
+    AtomicInteger counter = new AtomicInteger(0);
+    List<Consumer<Task>> consumers = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      consumers.add(t -> counter.incrementAndGet());
+    }
+    List<Task> tasks = wheel.scheduleAll(consumers, 5, 0);
+    tasks.get(0).cancel();
+    Thread thread = new Thread(() -> wheel.scheduleAll(consumers, 100, 0));
+    thread.start();
+    thread.join();
+    for (int i = 0; i < 4; i++) {
+      wheel.advance();
+    }
+    assertEquals(0, counter.get());
+    wheel.advance();
+    assertEquals(9, counter.get());
+    counter.set(0);
+    for (int i = 0; i < 100; i++) {
+      wheel.advance();
+    }
+    assertEquals(10, counter.get());
+    assertThrows(IllegalArgumentException.class, () -> wheel.scheduleAll(consumers, -1, 0));
+  }
+
+  @Test
+  void testMetrics() {
+    TimerWheel wheel = TimerWheel.hierarchical(WheelSpec.of(4, 4));
+    int[] counts = new int[6];
+    wheel.metrics(new WheelMetrics() {
+      @Override
+      public void scheduled(int delay) {
+        counts[0]++;
+      }
+
+      @Override
+      public void rescheduled(int period) {
+        counts[1]++;
+      }
+
+      @Override
+      public void expired(Task task, long nanos) {
+        counts[2]++;
+      }
+
+      @Override
+      public void cancelled(int count) {
+        counts[3] += count;
+      }
+
+      @Override
+      public void cascaded(int level, int tasks) {
+        counts[4]++;
+      }
+
+      @Override
+      public void advanced(int tick, int tasks, int largestBucket, long nanos) {
+        counts[5] = tasks;
+      }
+    });
+    Task repeating = wheel.schedule(t -> {
+    }, 1, 1);
+    for (int i = 0; i < 10; i++) {
+      wheel.schedule(t -> {
+      }, 10, 0);
+    }
+    wheel.schedule(t -> {
+    }, 10, 0).cancel();
+    wheel.schedule(t -> {
+    }, 100, 0);
+    wheel.advance();
+    assertEquals(13, counts[5]);
+    repeating.cancel();
+    for (int i = 0; i < 20; i++) {
+      wheel.advance();
+    }
+    assertArrayEquals(new int[]{13, 1, 11, 2, 5, 1}, counts);
+  }
+
+  @Test
+  void testSpread() {
+    for (TimerWheel wheel : List.of(TimerWheel.hierarchical(), TimerWheel.simple(64))) {
+      // Tasks without delay share the phase of tasks with a single tick of delay
+      for (int delay = 0; delay <= 1; delay++) {
+        int[] counts = new int[20];
+        for (int i = 0; i < 40; i++) {
+          wheel.scheduleSpread(t -> counts[wheel.currentTick() % 20]++, delay, 20);
+        }
+        for (int i = 1; i <= 20; i++) {
+          assertEquals(2, wheel.occupancy(i));
+        }
+        for (int i = 0; i < 40; i++) {
+          wheel.advance();
+        }
+        for (int count : counts) {
+          assertEquals(4, count);
+        }
+        wheel.shutdown(false);
+      }
+    }
+  }
+
+  @Test
+  void testProfiler() {
+    TimerWheel wheel = TimerWheel.hierarchical();
+    List<String> slow = new ArrayList<>();
+    TaskProfiler profiler = new TaskProfiler(5, 20_000_000, (label, nanos) -> slow.add(label));
+    wheel.metrics(profiler);
+    wheel.schedule(Labeled.consumer("sleepy", t -> {
+      try {
+        Thread.sleep(25);
+      } catch (InterruptedException ignore) {
+      }
+    }), 1, 0);
+    wheel.schedule(t -> {
+    }, 1, 1);
+    wheel.advance();
+    assertEquals(List.of("sleepy"), slow);
+    List<TaskProfile> top = profiler.top(10);
+    assertEquals(2, top.size());
+    assertEquals("sleepy", top.get(0).label());
+    assertEquals(TimerWheelTest.class.getName() + " (lambda)", top.get(1).label());
+    for (int i = 0; i < 5; i++) {
+      wheel.advance();
+    }
+    top = profiler.top(10);
+    assertEquals(1, top.size());
+    assertEquals(4, top.get(0).count());
+  }
+
+  @Test
+  void testCancelAll() throws InterruptedException {
+    AbstractTimerWheel wheel = (AbstractTimerWheel) TimerWheel.hierarchical(WheelSpec.of(8, 8));
+    wheel.advance();
+    AtomicInteger counter = new AtomicInteger(0);
+    String owner = "arena";
+    Task repeating = wheel.schedule(t -> counter.incrementAndGet(), 1, 1, owner);
+    wheel.schedule(t -> counter.incrementAndGet(), 5, 0, owner);
+    wheel.schedule(t -> counter.incrementAndGet(), 500, 0, owner);
+    wheel.schedule(t -> counter.addAndGet(100), 5, 0, "other");
+    Thread thread = new Thread(() -> wheel.runLater(counter::incrementAndGet, 3, owner));
+    thread.start();
+    thread.join();
+    wheel.advance();
+    assertEquals(1, counter.get());
+    assertEquals(4, wheel.cancelAll(owner));
+    assertEquals(0, wheel.cancelAll(owner));
+    assertEquals(1, linkedTasks(wheel));
+    for (int i = 0; i < 600; i++) {
+      wheel.advance();
+    }
+    assertEquals(101, counter.get());
+    wheel.schedule(t -> counter.incrementAndGet(), 1, 0, owner);
+    wheel.advance();
+    assertEquals(102, counter.get());
+    assertEquals(0, wheel.cancelAll(owner));
+  }
+
+  @Test
+  void testCancelAllOverflow() {
+    TimerWheel wheel = TimerWheel.hierarchical(WheelSpec.of(4, 4));
+    SplittableRandom random = new SplittableRandom(7);
+    AtomicInteger misses = new AtomicInteger(0);
+    AtomicInteger counter = new AtomicInteger(0);
+    List<RunnableTask> moved = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      int expected = random.nextInt(20, 500);
+      Runnable task = () -> {
+        counter.incrementAndGet();
+        if (wheel.currentTick() != expected) {
+          misses.incrementAndGet();
+        }
+      };
+      if (i % 2 == 0) {
+        wheel.runLater(task, expected, "cancelled");
+      } else if (i % 5 == 1) {
+        // Rescheduling moves tasks within the overflow queue
+        moved.add(wheel.schedule(new RunnableTask(task), random.nextInt(20, 500)));
+        wheel.schedule(moved.getLast(), expected, "kept");
+      } else {
+        wheel.runLater(task, expected, "kept");
+      }
+    }
+    assertEquals(500, wheel.cancelAll("cancelled"));
+    for (int i = 0; i < 500; i++) {
+      wheel.advance();
+    }
+    assertEquals(500, counter.get());
+    assertEquals(0, misses.get());
+    assertEquals(0, wheel.cancelAll("kept"));
+  }
+
+  @Test
+  void testErrorHandler() {
+    TimerWheel wheel = TimerWheel.hierarchical();
+    Map<Task, TaskErrorHandler.Policy> policies = new HashMap<>();
+    wheel.errorHandler((task, error) -> policies.get(task));
+    int[] runs = new int[4];
+    for (TaskErrorHandler.Policy policy : TaskErrorHandler.Policy.values()) {
+      policies.put(wheel.schedule(t -> {
+        runs[policy.ordinal()]++;
+        throw new IllegalStateException();
+      }, 1, 1), policy);
+    }
+    wheel.schedule(t -> runs[3]++, 1, 0);
+    for (int i = 0; i < 20; i++) {
+      wheel.advance();
+    }
+    // Back off delays: 2, 4, 8, 16
+    assertArrayEquals(new int[]{20, 1, 4, 1}, runs);
+    assertEquals(25, wheel.failures());
+  }
+
+  @Test
+  void testErrorIsolation() {
+    TimerWheel wheel = TimerWheel.hierarchical();
+    List<Throwable> errors = new ArrayList<>();
+    wheel.errorHandler((task, error) -> {
+      errors.add(error);
+      return TaskErrorHandler.Policy.KEEP;
+    });
+    AtomicInteger counter = new AtomicInteger(0);
+    wheel.schedule(t -> {
+      throw new AssertionError();
+    }, 3, 0);
+    wheel.schedule(t -> counter.incrementAndGet(), 3, 0);
+    for (int i = 0; i < 3; i++) {
+      wheel.advance();
+    }
+    assertEquals(1, counter.get());
+    assertEquals(1, errors.size());
+    assertTrue(errors.getFirst() instanceof AssertionError);
+    wheel.schedule(t -> {
+      throw new StackOverflowError();
+    }, 1, 0);
+    assertThrows(StackOverflowError.class, wheel::advance);
+  }
+}
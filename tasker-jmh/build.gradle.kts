@@ -0,0 +1,13 @@
+plugins {
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    jmh(projects.taskerCore)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import me.moros.tasker.Task;
+import me.moros.tasker.TimerWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of a single tick on a wheel holding a steady population of tasks.
+ * <br>
+ * One-shot tasks schedule a replacement when they expire so the population stays constant.
+ * A short horizon keeps every task in the first level, while the long horizon makes most ticks
+ * of a {@link TimerWheel#hierarchical() Hierarchical} wheel cascade-heavy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8G")
+public class AdvanceBenchmark {
+  @Param({"simple", "hierarchical", "hierarchical-pow2"})
+  private String type;
+  @Param({"1000", "100000", "1000000", "10000000"})
+  private int tasks;
+  @Param({"0", "50"})
+  private int repeatingPercent;
+  @Param({"20", "72000"})
+  private int horizon;
+
+  private int[] delays;
+  private int cursor;
+  private TimerWheel wheel;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    SplittableRandom random = new SplittableRandom(42);
+    delays = Wheels.delays(random, tasks, horizon);
+    int[] periods = Wheels.periods(random, tasks, horizon, repeatingPercent);
+    wheel = Wheels.create(type);
+    for (int i = 0; i < tasks; i++) {
+      if (periods[i] > 0) {
+        wheel.schedule(Wheels.NOOP, delays[i], periods[i]);
+      } else {
+        wheel.schedule(this::churn, delays[i], 0);
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    wheel.shutdown(false);
+  }
+
+  private void churn(Task task) {
+    int delay = delays[cursor];
+    cursor = (cursor + 1) % delays.length;
+    wheel.schedule(this::churn, delay, 0);
+  }
+
+  @Benchmark
+  public TimerWheel advance() {
+    wheel.advance();
+    return wheel;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import me.moros.tasker.Task;
+import me.moros.tasker.TimerWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures off-thread scheduling while a single thread keeps advancing the wheel.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ContentionBenchmark {
+  @Param({"simple", "hierarchical", "hierarchical-pow2"})
+  private String type;
+  @Param({"1", "20"})
+  private int delay;
+
+  private TimerWheel wheel;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    wheel = Wheels.create(type);
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    wheel.shutdown(false);
+  }
+
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(1)
+  public TimerWheel advance() {
+    wheel.advance();
+    return wheel;
+  }
+
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(3)
+  public Task schedule() {
+    return wheel.schedule(Wheels.NOOP, delay, 0);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import me.moros.tasker.TimerWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of filling an empty wheel with a batch of tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8G")
+public class ScheduleBenchmark {
+  @Param({"simple", "hierarchical", "hierarchical-pow2"})
+  private String type;
+  @Param({"1000", "100000", "1000000", "10000000"})
+  private int tasks;
+  @Param({"0", "50"})
+  private int repeatingPercent;
+
+  private int[] delays;
+  private int[] periods;
+  private TimerWheel wheel;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    SplittableRandom random = new SplittableRandom(42);
+    delays = Wheels.delays(random, tasks, Wheels.CAPACITY);
+    periods = Wheels.periods(random, tasks, Wheels.CAPACITY, repeatingPercent);
+  }
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    wheel = Wheels.create(type);
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    wheel.shutdown(false);
+  }
+
+  @Benchmark
+  public TimerWheel schedule() {
+    for (int i = 0; i < tasks; i++) {
+      wheel.schedule(Wheels.NOOP, delays[i], periods[i]);
+    }
+    return wheel;
+  }
+}
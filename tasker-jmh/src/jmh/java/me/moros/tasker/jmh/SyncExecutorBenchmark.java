@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker.jmh;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import me.moros.tasker.Task;
+import me.moros.tasker.executor.AbstractSyncExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the full submission path of {@link AbstractSyncExecutor}, including the allocation of
+ * futures, lambdas and wheel nodes. Run with the GC profiler to report allocation rates.
+ * <br>
+ * The wheel is advanced every {@link #TICK_INTERVAL} submissions to emulate a busy main thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SyncExecutorBenchmark {
+  private static final int TICK_INTERVAL = 1024;
+  private static final Runnable RUNNABLE = () -> {
+  };
+  private static final Supplier<Object> SUPPLIER = () -> Boolean.TRUE;
+  private static final Consumer<? super Task> CONSUMER = t -> {
+  };
+
+  @Param({"0", "20"})
+  private int delay;
+
+  private BenchmarkExecutor executor;
+  private int submitted;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    executor = new BenchmarkExecutor();
+    submitted = 0;
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  private void tick() {
+    if ((++submitted & (TICK_INTERVAL - 1)) == 0) {
+      executor.tick();
+    }
+  }
+
+  @Benchmark
+  public CompletableFuture<?> submit() {
+    tick();
+    return executor.submit(SUPPLIER, delay);
+  }
+
+  @Benchmark
+  public CompletableFuture<?> submitRunnable() {
+    tick();
+    return executor.submit(RUNNABLE, delay);
+  }
+
+  @Benchmark
+  public void execute() {
+    tick();
+    executor.execute(RUNNABLE);
+  }
+
+  @Benchmark
+  public Task repeatAndCancel() {
+    tick();
+    Task task = executor.repeat(CONSUMER, delay, 1);
+    task.cancel();
+    return task;
+  }
+
+  private static final class BenchmarkExecutor extends AbstractSyncExecutor {
+    private void tick() {
+      wheel.advance();
+    }
+
+    @Override
+    public boolean isValid() {
+      return true;
+    }
+  }
+}
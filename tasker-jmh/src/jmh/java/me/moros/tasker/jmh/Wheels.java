@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker.jmh;
+
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+import me.moros.tasker.Task;
+import me.moros.tasker.TimerWheel;
+import me.moros.tasker.WheelSpec;
+
+final class Wheels {
+  static final int CAPACITY = 72_000; // 1 hour of game ticks
+  static final Consumer<? super Task> NOOP = t -> {
+  };
+
+  private Wheels() {
+  }
+
+  static TimerWheel create(String type) {
+    return switch (type) {
+      case "simple" -> TimerWheel.simple(CAPACITY);
+      case "hierarchical" -> TimerWheel.hierarchical();
+      case "hierarchical-pow2" -> TimerWheel.hierarchical(WheelSpec.powerOfTwo());
+      default -> throw new IllegalArgumentException("Unknown wheel type: " + type);
+    };
+  }
+
+  static int[] delays(SplittableRandom random, int size, int horizon) {
+    int[] delays = new int[size];
+    for (int i = 0; i < size; i++) {
+      delays[i] = random.nextInt(1, horizon + 1);
+    }
+    return delays;
+  }
+
+  static int[] periods(SplittableRandom random, int size, int horizon, int repeatingPercent) {
+    int[] periods = new int[size];
+    for (int i = 0; i < size; i++) {
+      periods[i] = random.nextInt(100) < repeatingPercent ? random.nextInt(1, horizon + 1) : 0;
+    }
+    return periods;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker.minestom;
+
+import java.util.Objects;
+
+import me.moros.tasker.executor.AbstractSyncExecutor;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.timer.Task;
+import net.minestom.server.timer.TaskSchedule;
+
+/**
+ * Synchronous executor bound to a single Minestom entity.
+ * <br>
+ * The executor keeps its own timer wheel that is advanced by the entity's scheduler as part of the entity tick,
+ * on the same thread that ticks the entity's chunk. Once the entity is removed, its scheduler stops ticking so pending
+ * tasks never run, and the executor rejects new tasks.
+ */
+public class EntityExecutor extends AbstractSyncExecutor {
+  private final Entity entity;
+  private final Task task;
+
+  public EntityExecutor(Entity entity) {
+    this.entity = Objects.requireNonNull(entity);
+    task = this.entity.scheduler().buildTask(this::tick)
+      .delay(TaskSchedule.nextTick())
+      .repeat(TaskSchedule.nextTick())
+      .schedule();
+  }
+
+  private void tick() {
+    wheel.advance();
+  }
+
+  @Override
+  public boolean isValid() {
+    return MinecraftServer.isStarted() && !entity.isRemoved();
+  }
+
+  @Override
+  public void shutdown() {
+    super.shutdown();
+    task.cancel();
+  }
+}
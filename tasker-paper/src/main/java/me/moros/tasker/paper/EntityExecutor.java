@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker.paper;
+
+import java.util.Objects;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import me.moros.tasker.executor.AbstractSyncExecutor;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Synchronous executor bound to an entity on Folia.
+ * <br>
+ * The executor keeps its own timer wheel that is advanced by the entity's scheduler, so tasks follow the entity
+ * across regions and always run on the thread that owns it. Once the entity is retired, for example when it's
+ * removed or the player logs out, all pending tasks are discarded and the executor rejects new tasks.
+ */
+public class EntityExecutor extends AbstractSyncExecutor {
+  private final Plugin plugin;
+  private final ScheduledTask task;
+  private volatile boolean retired;
+
+  /**
+   * Create a new executor for the given entity.
+   * @param plugin the plugin that owns the executor
+   * @param entity the entity to bind to
+   * @throws IllegalStateException if the entity has already been retired
+   */
+  public EntityExecutor(Plugin plugin, Entity entity) {
+    this.plugin = Objects.requireNonNull(plugin);
+    ScheduledTask scheduled = entity.getScheduler().runAtFixedRate(this.plugin, t -> wheel.advance(), this::retire, 1, 1);
+    if (scheduled == null) {
+      throw new IllegalStateException("Entity " + entity.getUniqueId() + " has already been retired!");
+    }
+    task = scheduled;
+  }
+
+  private void retire() {
+    retired = true;
+    clear();
+  }
+
+  /**
+   * Check whether the entity this executor is bound to has been retired.
+   * @return true if the entity has been retired, false otherwise
+   */
+  public boolean isRetired() {
+    return retired;
+  }
+
+  @Override
+  public boolean isValid() {
+    return !retired && plugin.isEnabled();
+  }
+
+  @Override
+  public void shutdown() {
+    super.shutdown();
+    task.cancel();
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021-2025 Moros
+ *
+ * This file is part of Tasker.
+ *
+ * Tasker is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tasker is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Tasker. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package me.moros.tasker.paper;
+
+import java.util.Objects;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import me.moros.tasker.executor.AbstractSyncExecutor;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Synchronous executor for a single region on Folia.
+ * <br>
+ * The executor keeps its own timer wheel that is advanced by the region scheduler, so tasks run on the thread
+ * that owns the given chunk and executors of different regions tick in parallel. On Paper, the region
+ * scheduler delegates to the main thread.
+ */
+public class RegionExecutor extends AbstractSyncExecutor {
+  private final Plugin plugin;
+  private final ScheduledTask task;
+
+  public RegionExecutor(Plugin plugin, Location location) {
+    this(plugin, Objects.requireNonNull(location.getWorld()), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+  }
+
+  public RegionExecutor(Plugin plugin, World world, int chunkX, int chunkZ) {
+    this.plugin = Objects.requireNonNull(plugin);
+    Objects.requireNonNull(world);
+    task = this.plugin.getServer().getRegionScheduler().runAtFixedRate(this.plugin, world, chunkX, chunkZ, t -> wheel.advance(), 1, 1);
+  }
+
+  @Override
+  public boolean isValid() {
+    return plugin.isEnabled();
+  }
+
+  @Override
+  public void shutdown() {
+    super.shutdown();
+    task.cancel();
+  }
+}